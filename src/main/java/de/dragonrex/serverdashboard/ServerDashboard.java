@@ -3,13 +3,23 @@ package de.dragonrex.serverdashboard;
 import de.dragonrex.serverdashboard.config.AppConfig;
 import de.dragonrex.serverdashboard.config.Config;
 import de.dragonrex.serverdashboard.config.ConfigManager;
+import de.dragonrex.serverdashboard.controller.AdminController;
 import de.dragonrex.serverdashboard.controller.ApiController;
 import de.dragonrex.serverdashboard.controller.DashboardController;
 import de.dragonrex.serverdashboard.controller.LoginController;
 import de.dragonrex.serverdashboard.controller.WebSocketController;
 import de.dragonrex.serverdashboard.database.Database;
 import de.dragonrex.serverdashboard.database.DatabaseHandler;
+import de.dragonrex.serverdashboard.database.PoolSettings;
+import de.dragonrex.serverdashboard.database.backup.BackupService;
+import de.dragonrex.serverdashboard.database.backup.CommandBackupStrategy;
+import de.dragonrex.serverdashboard.database.maintenance.SQLiteMaintenanceService;
+import de.dragonrex.serverdashboard.database.metrics.AdaptivePoolSizer;
+import de.dragonrex.serverdashboard.database.migration.SchemaMigrator;
 import de.dragonrex.serverdashboard.database.processor.*;
+import de.dragonrex.serverdashboard.status.BackpressurePolicy;
+import de.dragonrex.serverdashboard.status.DashboardHub;
+import de.dragonrex.serverdashboard.status.StatusManager;
 import de.dragonrex.serverdashboard.user.UserManager;
 import io.javalin.Javalin;
 import lombok.Getter;
@@ -18,6 +28,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,6 +42,10 @@ public class ServerDashboard {
     private final Database database;
     private final DatabaseHandler databaseHandler;
     private final UserManager userManager;
+    private final DashboardHub dashboardHub;
+    private final StatusManager statusManager;
+    private final BackupService backupService;
+    private final SQLiteMaintenanceService maintenanceService;
     private final Javalin app;
 
     public ServerDashboard() {
@@ -46,6 +62,42 @@ public class ServerDashboard {
         Config databaseConfig = this.configManager.loadConfig(databaseConfigPath);
         databaseConfig.addDefault("type", "SQLITE");
         databaseConfig.addDefault("database", "database.db");
+        databaseConfig.addDefault("async_max_concurrency", 0);
+        databaseConfig.addDefault("pool_max_size", 8);
+        databaseConfig.addDefault("pool_min_idle", 1);
+        databaseConfig.addDefault("pool_connection_timeout_ms", 10000);
+        databaseConfig.addDefault("pool_idle_timeout_ms", 600000);
+        databaseConfig.addDefault("pool_max_lifetime_ms", 1800000);
+        databaseConfig.addDefault("pool_leak_detection_ms", 60000);
+        databaseConfig.addDefault("pool_adaptive", false);
+        databaseConfig.addDefault("pool_adaptive_min_size", 2);
+        databaseConfig.addDefault("pool_adaptive_max_size", 32);
+        databaseConfig.addDefault("pool_adaptive_interval_seconds", 30);
+        databaseConfig.addDefault("pool_adaptive_target_wait_ms", 5);
+        databaseConfig.addDefault("sqlite_single_writer", false);
+        databaseConfig.addDefault("sqlite_writer_batch_size", 256);
+        databaseConfig.addDefault("sqlite_maintenance_enabled", true);
+        databaseConfig.addDefault("sqlite_maintenance_interval_minutes", 15);
+        databaseConfig.addDefault("sqlite_vacuum_chunk_pages", 256);
+        databaseConfig.addDefault("sqlite_vacuum_max_chunks", 16);
+        databaseConfig.addDefault("sqlite_analyze_interval_hours", 24);
+        databaseConfig.addDefault("sqlite_wal_passive_checkpoint_mb", 16);
+        databaseConfig.addDefault("sqlite_wal_truncate_checkpoint_mb", 64);
+        databaseConfig.addDefault("resilience_enabled", true);
+        databaseConfig.addDefault("read_timeout_ms", 2000);
+        databaseConfig.addDefault("write_timeout_ms", 5000);
+        databaseConfig.addDefault("breaker_failure_threshold", 5);
+        databaseConfig.addDefault("breaker_open_seconds", 10);
+        databaseConfig.addDefault("fallback_max_entries", 500);
+        databaseConfig.addDefault("mongo_server_selection_timeout_ms", 2000);
+        databaseConfig.addDefault("mongo_connect_timeout_ms", 2000);
+        databaseConfig.addDefault("mongo_socket_timeout_ms", 5000);
+        databaseConfig.addDefault("query_cache_enabled", true);
+        databaseConfig.addDefault("query_cache_max_entries", 1000);
+        databaseConfig.addDefault("query_cache_ttl_seconds", 30);
+        databaseConfig.addDefault("slow_query_threshold_ms", 200);
+        databaseConfig.addDefault("slow_query_explain", true);
+        databaseConfig.addDefault("query_metrics_max_statements", 500);
 
         String jdbcUrl = databaseConfig.config().getString("jdbc");
         if (jdbcUrl.startsWith("jdbc:sqlite:")) {
@@ -53,6 +105,24 @@ public class ServerDashboard {
         }
 
         this.database = new Database(jdbcUrl);
+        this.database.setAsyncMaxConcurrency(databaseConfig.config().getInt("async_max_concurrency"));
+        this.database.setPoolSettings(new PoolSettings(
+                databaseConfig.config().getInt("pool_max_size"),
+                databaseConfig.config().getInt("pool_min_idle"),
+                databaseConfig.config().getInt("pool_connection_timeout_ms"),
+                databaseConfig.config().getInt("pool_idle_timeout_ms"),
+                databaseConfig.config().getInt("pool_max_lifetime_ms"),
+                databaseConfig.config().getInt("pool_leak_detection_ms")));
+        this.database.setSlowQueryThresholdMillis(databaseConfig.config().getInt("slow_query_threshold_ms"));
+        this.database.setSlowQueryExplain(databaseConfig.config().getBoolean("slow_query_explain"));
+        this.database.setQueryMetricsMaxStatements(databaseConfig.config().getInt("query_metrics_max_statements"));
+        if (databaseConfig.config().getBoolean("pool_adaptive")) {
+            this.database.setAdaptivePoolSizing(new AdaptivePoolSizer.Settings(
+                    databaseConfig.config().getInt("pool_adaptive_min_size"),
+                    databaseConfig.config().getInt("pool_adaptive_max_size"),
+                    TimeUnit.SECONDS.toMillis(databaseConfig.config().getInt("pool_adaptive_interval_seconds")),
+                    databaseConfig.config().getInt("pool_adaptive_target_wait_ms")));
+        }
         if (this.database.getNoSQL().isEmpty() || !this.database.getNoSQL().get()) {
             this.database.configure();
         }
@@ -68,7 +138,7 @@ public class ServerDashboard {
             if ("MONGODB".equals(databaseConfig.config().getString("type"))) {
                 LOGGER.info("Fallback zu SQLite-Datenbank...");
                 this.database.configure();
-                processor = new SQLiteProcessor(this.database);
+                processor = createSQLiteProcessor(databaseConfig);
                 processor.connect();
                 LOGGER.info("SQLite-Fallback-Verbindung hergestellt");
             } else {
@@ -76,16 +146,51 @@ public class ServerDashboard {
             }
         }
 
+        try {
+            new SchemaMigrator(processor).migrate(appConfig.isAutoMigrate());
+        } catch (Exception e) {
+            LOGGER.severe("Fehler bei der Schema-Migration: " + e.getMessage());
+            throw new RuntimeException("Schema-Migration fehlgeschlagen", e);
+        }
+
+        // The cache sits outside the breaker, so fresh cache hits never touch a failing backend.
+        if (databaseConfig.config().getBoolean("resilience_enabled")) {
+            processor = new ResilientProcessor(processor, new ResilientProcessor.Settings(
+                    databaseConfig.config().getInt("read_timeout_ms"),
+                    databaseConfig.config().getInt("write_timeout_ms"),
+                    databaseConfig.config().getInt("breaker_failure_threshold"),
+                    TimeUnit.SECONDS.toMillis(databaseConfig.config().getInt("breaker_open_seconds")),
+                    databaseConfig.config().getInt("fallback_max_entries")));
+        }
+
+        if (databaseConfig.config().getBoolean("query_cache_enabled")) {
+            processor = new CachingProcessor(processor,
+                    databaseConfig.config().getInt("query_cache_max_entries"),
+                    TimeUnit.SECONDS.toMillis(databaseConfig.config().getInt("query_cache_ttl_seconds")));
+            LOGGER.info("Abfrage-Cache aktiv (max. " + databaseConfig.config().getInt("query_cache_max_entries") + " Einträge)");
+        }
+
         this.databaseHandler = new DatabaseHandler(database, processor);
         this.userManager = new UserManager(databaseHandler, appConfig);
         this.userManager.loadUser();
 
+        this.dashboardHub = new DashboardHub(
+                appConfig.getDashboardMaxPendingFrames(),
+                appConfig.getDashboardMaxPendingBytes(),
+                BackpressurePolicy.fromConfig(appConfig.getDashboardBackpressurePolicy()),
+                appConfig.getDashboardSenderThreads()
+        );
+        this.statusManager = new StatusManager(appConfig, this.dashboardHub, processor);
+        this.backupService = createBackupService(processor, databaseConfig);
+        this.maintenanceService = createMaintenanceService(processor, databaseConfig);
+
         this.app = createJavalinApp();
 
         new LoginController(app, this.userManager, appConfig);
         new DashboardController(app, appConfig);
-        new ApiController(app, appConfig);
-        new WebSocketController(app);
+        new ApiController(app, appConfig, this.statusManager);
+        new WebSocketController(app, this.dashboardHub, this.statusManager);
+        new AdminController(app, appConfig, this.dashboardHub, this.databaseHandler, this.backupService, this.maintenanceService);
 
         LOGGER.info("Server gestartet auf Port: " + appConfig.getApplicationPort());
         LOGGER.info("Dashboard verfügbar unter: http://localhost:" + appConfig.getApplicationPort());
@@ -134,15 +239,26 @@ public class ServerDashboard {
             }
             case "MONGODB" -> {
                 LOGGER.info("MongoDB-Datenbankprozessor wird verwendet");
-                yield new MongoProcessor(this.database, databaseConfig.config().getString("database"));
+                yield new MongoProcessor(this.database, databaseConfig.config().getString("database"),
+                        databaseConfig.config().getInt("mongo_server_selection_timeout_ms"),
+                        databaseConfig.config().getInt("mongo_connect_timeout_ms"),
+                        databaseConfig.config().getInt("mongo_socket_timeout_ms"));
             }
             default -> {
                 LOGGER.info("SQLite-Datenbankprozessor wird verwendet (Standard)");
-                yield new SQLiteProcessor(this.database);
+                yield createSQLiteProcessor(databaseConfig);
             }
         };
     }
 
+    private SQLiteProcessor createSQLiteProcessor(Config databaseConfig) {
+        boolean singleWriter = databaseConfig.config().getBoolean("sqlite_single_writer");
+        if (singleWriter) {
+            LOGGER.info("SQLite-Einzelschreiber aktiv (Batchgröße: " + databaseConfig.config().getInt("sqlite_writer_batch_size") + ")");
+        }
+        return new SQLiteProcessor(this.database, singleWriter, databaseConfig.config().getInt("sqlite_writer_batch_size"));
+    }
+
     private Javalin createJavalinApp() {
         return Javalin.create(config -> {
             config.staticFiles.add("/public");
@@ -157,6 +273,52 @@ public class ServerDashboard {
         }).start(appConfig.getApplicationPort());
     }
 
+    // SQLite is copied in-process; other backends need a configured dump command.
+    private BackupService createBackupService(IProcessor processor, Config databaseConfig) {
+        if (!appConfig.isBackupEnabled()) {
+            return null;
+        }
+
+        long intervalMillis = TimeUnit.HOURS.toMillis(appConfig.getBackupIntervalHours());
+        Path directory = Path.of(appConfig.getBackupDirectory());
+        BackupService service;
+        Optional<SQLiteProcessor> sqliteProcessor = processor.unwrap(SQLiteProcessor.class);
+        if (sqliteProcessor.isPresent()) {
+            String fileName = sqliteProcessor.get().getDatabaseFile().getFileName().toString();
+            String prefix = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+            service = new BackupService(sqliteProcessor.get()::backupTo, directory, prefix, ".db",
+                    intervalMillis, appConfig.getBackupRetentionCount());
+        } else if (!appConfig.getBackupCommand().isEmpty()) {
+            service = new BackupService(new CommandBackupStrategy(appConfig.getBackupCommand(), intervalMillis),
+                    directory, databaseConfig.config().getString("type").toLowerCase(), ".dump",
+                    intervalMillis, appConfig.getBackupRetentionCount());
+        } else {
+            LOGGER.warning("Backups aktiviert, aber für " + databaseConfig.config().getString("type") + " ist kein backup_command konfiguriert");
+            return null;
+        }
+
+        service.start();
+        return service;
+    }
+
+    private SQLiteMaintenanceService createMaintenanceService(IProcessor processor, Config databaseConfig) {
+        Optional<SQLiteProcessor> sqliteProcessor = processor.unwrap(SQLiteProcessor.class);
+        if (sqliteProcessor.isEmpty() || !databaseConfig.config().getBoolean("sqlite_maintenance_enabled")) {
+            return null;
+        }
+
+        SQLiteMaintenanceService service = new SQLiteMaintenanceService(sqliteProcessor.get(), new SQLiteMaintenanceService.Settings(
+                TimeUnit.MINUTES.toMillis(databaseConfig.config().getInt("sqlite_maintenance_interval_minutes")),
+                databaseConfig.config().getInt("sqlite_vacuum_chunk_pages"),
+                databaseConfig.config().getInt("sqlite_vacuum_max_chunks"),
+                TimeUnit.HOURS.toMillis(databaseConfig.config().getInt("sqlite_analyze_interval_hours")),
+                databaseConfig.config().getInt("sqlite_wal_passive_checkpoint_mb") * 1024L * 1024L,
+                databaseConfig.config().getInt("sqlite_wal_truncate_checkpoint_mb") * 1024L * 1024L
+        ));
+        service.start();
+        return service;
+    }
+
     private void ensureDatabaseDirectoryExists(String jdbcUrl) {
         String filePath = jdbcUrl.substring("jdbc:sqlite:".length());
         Path databasePath = Paths.get(filePath);
@@ -178,6 +340,18 @@ public class ServerDashboard {
         if (app != null) {
             app.stop();
         }
+        if (statusManager != null) {
+            statusManager.shutdown();
+        }
+        if (backupService != null) {
+            backupService.shutdown();
+        }
+        if (maintenanceService != null) {
+            maintenanceService.shutdown();
+        }
+        if (dashboardHub != null) {
+            dashboardHub.shutdown();
+        }
         if (databaseHandler != null && databaseHandler.processor() != null) {
             databaseHandler.processor().disconnect();
         }
@@ -32,6 +32,27 @@ public class AppConfig {
     private boolean autoMigrate;
     private boolean backupEnabled;
     private int backupIntervalHours;
+    private String backupDirectory;
+    private int backupRetentionCount;
+    private List<String> backupCommand;
+
+    // Dashboard Settings
+    private int dashboardMaxPendingFrames;
+    private long dashboardMaxPendingBytes;
+    private String dashboardBackpressurePolicy;
+    private int dashboardSenderThreads;
+    private long dashboardTickIntervalMillis;
+
+    // History Settings
+    private int historyCapacity;
+    private long historyResolutionMillis;
+    private boolean historyPersistenceEnabled;
+    private int historyQueueCapacity;
+    private int historyBatchSize;
+    private long historyFlushIntervalMillis;
+    private int historyRawRetentionHours;
+    private int historyMinuteRetentionDays;
+    private int historyHourRetentionDays;
 
     // Logging Settings
     private String loggingLevel;
@@ -147,10 +168,41 @@ public class AppConfig {
             this.autoMigrate = database.optBoolean("auto_migrate", true);
             this.backupEnabled = database.optBoolean("backup_enabled", true);
             this.backupIntervalHours = database.optInt("backup_interval_hours", 24);
+            this.backupDirectory = database.optString("backup_directory", "data/backups");
+            this.backupRetentionCount = database.optInt("backup_retention_count", 7);
+            this.backupCommand = parseStringArray(database.optJSONArray("backup_command"));
         } else {
             setDatabaseDefaults();
         }
 
+        // Parse Dashboard Settings
+        JSONObject dashboard = configJson.optJSONObject("dashboard");
+        if (dashboard != null) {
+            this.dashboardMaxPendingFrames = dashboard.optInt("max_pending_frames", 64);
+            this.dashboardMaxPendingBytes = dashboard.optLong("max_pending_bytes", 1048576);
+            this.dashboardBackpressurePolicy = dashboard.optString("backpressure_policy", "DROP_INTERMEDIATE");
+            this.dashboardSenderThreads = dashboard.optInt("sender_threads", 4);
+            this.dashboardTickIntervalMillis = dashboard.optLong("tick_interval_ms", 250);
+        } else {
+            setDashboardDefaults();
+        }
+
+        // Parse History Settings
+        JSONObject history = configJson.optJSONObject("history");
+        if (history != null) {
+            this.historyCapacity = history.optInt("capacity", 86400);
+            this.historyResolutionMillis = history.optLong("resolution_ms", 1000);
+            this.historyPersistenceEnabled = history.optBoolean("persistence_enabled", true);
+            this.historyQueueCapacity = history.optInt("queue_capacity", 10000);
+            this.historyBatchSize = history.optInt("batch_size", 500);
+            this.historyFlushIntervalMillis = history.optLong("flush_interval_ms", 1000);
+            this.historyRawRetentionHours = history.optInt("raw_retention_hours", 48);
+            this.historyMinuteRetentionDays = history.optInt("minute_retention_days", 14);
+            this.historyHourRetentionDays = history.optInt("hour_retention_days", 365);
+        } else {
+            setHistoryDefaults();
+        }
+
         // Parse Logging Settings
         JSONObject logging = configJson.optJSONObject("logging");
         if (logging != null) {
@@ -199,6 +251,29 @@ public class AppConfig {
         this.autoMigrate = true;
         this.backupEnabled = true;
         this.backupIntervalHours = 24;
+        this.backupDirectory = "data/backups";
+        this.backupRetentionCount = 7;
+        this.backupCommand = new ArrayList<>();
+    }
+
+    private void setDashboardDefaults() {
+        this.dashboardMaxPendingFrames = 64;
+        this.dashboardMaxPendingBytes = 1048576;
+        this.dashboardBackpressurePolicy = "DROP_INTERMEDIATE";
+        this.dashboardSenderThreads = 4;
+        this.dashboardTickIntervalMillis = 250;
+    }
+
+    private void setHistoryDefaults() {
+        this.historyCapacity = 86400;
+        this.historyResolutionMillis = 1000;
+        this.historyPersistenceEnabled = true;
+        this.historyQueueCapacity = 10000;
+        this.historyBatchSize = 500;
+        this.historyFlushIntervalMillis = 1000;
+        this.historyRawRetentionHours = 48;
+        this.historyMinuteRetentionDays = 14;
+        this.historyHourRetentionDays = 365;
     }
 
     private void setLoggingDefaults() {
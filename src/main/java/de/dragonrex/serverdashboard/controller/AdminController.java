@@ -0,0 +1,124 @@
+package de.dragonrex.serverdashboard.controller;
+
+import de.dragonrex.serverdashboard.config.AppConfig;
+import de.dragonrex.serverdashboard.database.DatabaseHandler;
+import de.dragonrex.serverdashboard.database.backup.BackupService;
+import de.dragonrex.serverdashboard.database.maintenance.SQLiteMaintenanceService;
+import de.dragonrex.serverdashboard.database.metrics.QueryMetrics;
+import de.dragonrex.serverdashboard.database.processor.AbstractSQLProcessor;
+import de.dragonrex.serverdashboard.database.processor.CachingProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoProcessor;
+import de.dragonrex.serverdashboard.database.processor.ResilientProcessor;
+import de.dragonrex.serverdashboard.status.DashboardHub;
+import io.javalin.Javalin;
+import io.javalin.http.ForbiddenResponse;
+import io.javalin.http.UnauthorizedResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public class AdminController {
+    private static final Logger LOGGER = Logger.getLogger(AdminController.class.getName());
+
+    private final AppConfig appConfig;
+    private final DashboardHub dashboardHub;
+    private final DatabaseHandler databaseHandler;
+    private final BackupService backupService;
+    private final SQLiteMaintenanceService maintenanceService;
+
+    // The services are null when disabled or unsupported for the configured database.
+    public AdminController(Javalin app, AppConfig appConfig, DashboardHub dashboardHub, DatabaseHandler databaseHandler,
+                           BackupService backupService, SQLiteMaintenanceService maintenanceService) {
+        this.appConfig = appConfig;
+        this.dashboardHub = dashboardHub;
+        this.databaseHandler = databaseHandler;
+        this.backupService = backupService;
+        this.maintenanceService = maintenanceService;
+
+        app.before("/api/admin/*", ctx -> {
+            String username = ctx.sessionAttribute("username");
+            if (username == null) {
+                throw new UnauthorizedResponse("Nicht authentifiziert");
+            }
+            if (!appConfig.getAdminConfig().role().equals(ctx.sessionAttribute("userRole"))) {
+                LOGGER.warning("Admin-Zugriff verweigert für Benutzer: " + username);
+                throw new ForbiddenResponse("Keine Berechtigung");
+            }
+        });
+
+        app.get("/api/admin/dashboard/sessions", ctx -> {
+            ctx.json(Map.of(
+                "hub", dashboardHub.getStats(),
+                "sessions", dashboardHub.getSessionMetrics()
+            ));
+        });
+
+        app.get("/api/admin/database/cache", ctx -> {
+            ctx.json(databaseHandler.processor().unwrap(CachingProcessor.class)
+                    .<Map<String, Object>>map(CachingProcessor::getStats)
+                    .orElse(Map.of("enabled", false)));
+        });
+
+        app.post("/api/admin/database/cache/clear", ctx -> {
+            databaseHandler.processor().unwrap(CachingProcessor.class).ifPresent(CachingProcessor::clear);
+            LOGGER.info("Abfrage-Cache geleert durch: " + ctx.sessionAttribute("username"));
+            ctx.json(Map.of("success", true));
+        });
+
+        app.get("/api/admin/database/pool", ctx -> {
+            ctx.json(databaseHandler.processor().unwrap(AbstractSQLProcessor.class)
+                    .<Map<String, Object>>map(AbstractSQLProcessor::getPoolStats)
+                    .orElse(Map.of("enabled", false)));
+        });
+
+        // Timings are taken at the backend, behind the query cache and the circuit breaker.
+        app.get("/api/admin/database/queries", ctx -> {
+            QueryMetrics queryMetrics = databaseHandler.processor().unwrap(AbstractSQLProcessor.class)
+                    .map(AbstractSQLProcessor::getQueryMetrics)
+                    .or(() -> databaseHandler.processor().unwrap(MongoProcessor.class).map(MongoProcessor::getQueryMetrics))
+                    .orElse(null);
+            ctx.json(queryMetrics != null ? queryMetrics.getStats(100) : Map.of("enabled", false));
+        });
+
+        app.get("/api/admin/database/resilience", ctx -> {
+            ctx.json(databaseHandler.processor().unwrap(ResilientProcessor.class)
+                    .<Map<String, Object>>map(ResilientProcessor::getStats)
+                    .orElse(Map.of("enabled", false)));
+        });
+
+        app.get("/api/admin/database/backup", ctx -> {
+            ctx.json(backupService != null ? backupService.getStats() : Map.of("enabled", false));
+        });
+
+        app.post("/api/admin/database/backup/run", ctx -> {
+            if (backupService == null) {
+                ctx.status(409).json(Map.of("success", false, "error", "Backups sind nicht aktiviert"));
+                return;
+            }
+            LOGGER.info("Datenbank-Backup angefordert durch: " + ctx.sessionAttribute("username"));
+            ctx.future(() -> backupService.triggerBackup().thenAccept(ctx::json));
+        });
+
+        // SQLite does not expose its page cache counters through JDBC, so the query cache hit ratio is reported instead.
+        app.get("/api/admin/database/maintenance", ctx -> {
+            if (maintenanceService == null) {
+                ctx.json(Map.of("enabled", false));
+                return;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>(maintenanceService.getStats());
+            databaseHandler.processor().unwrap(CachingProcessor.class)
+                    .ifPresent(cache -> stats.put("queryCacheHitRatio", cache.getStats().get("hitRatio")));
+            ctx.json(stats);
+        });
+
+        app.post("/api/admin/database/maintenance/run", ctx -> {
+            if (maintenanceService == null) {
+                ctx.status(409).json(Map.of("success", false, "error", "SQLite-Wartung ist nicht aktiviert"));
+                return;
+            }
+            LOGGER.info("SQLite-Wartung angefordert durch: " + ctx.sessionAttribute("username"));
+            ctx.future(() -> maintenanceService.triggerMaintenance().thenAccept(ctx::json));
+        });
+    }
+}
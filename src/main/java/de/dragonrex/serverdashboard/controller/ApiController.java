@@ -1,19 +1,37 @@
 package de.dragonrex.serverdashboard.controller;
 
 import de.dragonrex.serverdashboard.config.AppConfig;
+import de.dragonrex.serverdashboard.status.EncodedFrame;
+import de.dragonrex.serverdashboard.status.SnapshotCache;
+import de.dragonrex.serverdashboard.status.StatusManager;
+import de.dragonrex.serverdashboard.status.StatusSampleWriter;
 import io.javalin.Javalin;
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class ApiController {
     private static final Logger LOGGER = Logger.getLogger(ApiController.class.getName());
+    private static final long MAX_LONG_POLL_SECONDS = 60;
 
     private final AppConfig appConfig;
+    private final StatusManager statusManager;
 
-    public ApiController(Javalin app, AppConfig appConfig) {
+    public ApiController(Javalin app, AppConfig appConfig, StatusManager statusManager) {
         this.appConfig = appConfig;
+        this.statusManager = statusManager;
+        SnapshotCache snapshotCache = statusManager.getSnapshotCache();
 
         app.get("/api/user/me", ctx -> {
             String username = ctx.sessionAttribute("username");
@@ -27,7 +45,66 @@ public class ApiController {
         });
 
         app.get("/api/server/status", ctx -> {
-            ctx.json("{\"status\" : \"16/32\"}");
+            Long waitForVersion = ctx.queryParamAsClass("waitForVersion", Long.class).allowNullable().get();
+            if (waitForVersion == null || statusManager.getRegistry().getVersion() >= waitForVersion) {
+                sendVersionedFrame(ctx, snapshotCache.registrySnapshot());
+                return;
+            }
+
+            long timeoutSeconds = Math.min(ctx.queryParamAsClass("timeout", Long.class).getOrDefault(30L), MAX_LONG_POLL_SECONDS);
+            ctx.future(() -> statusManager.getRegistry().awaitVersion(waitForVersion)
+                .completeOnTimeout(-1L, timeoutSeconds, TimeUnit.SECONDS)
+                .thenAccept(version -> sendVersionedFrame(ctx, snapshotCache.registrySnapshot())));
+        });
+
+        app.get("/api/servers", ctx -> {
+            sendVersionedFrame(ctx, snapshotCache.registrySnapshot());
+        });
+
+        app.get("/api/server/{id}/history", ctx -> {
+            long from = ctx.queryParamAsClass("from", Long.class).getOrDefault(0L);
+            long to = ctx.queryParamAsClass("to", Long.class).getOrDefault(Long.MAX_VALUE);
+            statusManager.getHistory().range(ctx.pathParam("id"), from, to).ifPresentOrElse(
+                ctx::json,
+                () -> ctx.status(404).json(Map.of("error", "Keine Historie für diesen Server"))
+            );
+        });
+
+        // Streams straight from a database cursor, so long exports never sit in memory as a whole.
+        app.get("/api/server/{id}/history/export", ctx -> {
+            StatusSampleWriter sampleWriter = statusManager.getSampleWriter();
+            if (sampleWriter == null) {
+                ctx.status(404).json(Map.of("error", "Historie wird nicht gespeichert"));
+                return;
+            }
+
+            String serverId = ctx.pathParam("id");
+            long from = ctx.queryParamAsClass("from", Long.class).getOrDefault(0L);
+            long to = ctx.queryParamAsClass("to", Long.class).getOrDefault(Long.MAX_VALUE);
+            ctx.contentType("text/csv; charset=utf-8");
+            ctx.header("Content-Disposition", "attachment; filename=\"history-" + serverId.replaceAll("[^A-Za-z0-9._-]", "_") + ".csv\"");
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8))) {
+                writer.write("sampled_at,current_players,max_players\n");
+                sampleWriter.export(serverId, from, to, sample -> {
+                    try {
+                        writer.write(sample.sampledAt() + "," + sample.currentPlayers() + "," + sample.maxPlayers() + "\n");
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        });
+
+        app.get("/api/status/stats", ctx -> {
+            ctx.json(statusManager.getStats());
+        });
+
+        app.get("/api/servers/{id}", ctx -> {
+            snapshotCache.serverSnapshot(ctx.pathParam("id")).ifPresentOrElse(
+                frame -> sendFrame(ctx, frame),
+                () -> ctx.status(404).json(Map.of("error", "Server nicht gefunden"))
+            );
         });
 
         // Test-Endpoint
@@ -85,6 +162,29 @@ public class ApiController {
         });
     }
 
+    // Answers conditional requests with 304 when the client already holds this version.
+    private void sendVersionedFrame(Context ctx, SnapshotCache.VersionedFrame versionedFrame) {
+        String etag = "\"" + versionedFrame.version() + "\"";
+        ctx.header("ETag", etag);
+        ctx.header("Cache-Control", "no-cache");
+
+        String ifNoneMatch = ctx.header("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            ctx.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+        sendFrame(ctx, versionedFrame.frame());
+    }
+
+    private void sendFrame(Context ctx, EncodedFrame frame) {
+        String accept = ctx.header("Accept");
+        if (accept != null && accept.contains("application/cbor")) {
+            ctx.contentType("application/cbor").result(frame.binaryStream());
+        } else {
+            ctx.contentType(ContentType.APPLICATION_JSON).result(frame.text());
+        }
+    }
+
     private final long startTime = System.currentTimeMillis();
 
     private long getStartTime() {
@@ -3,10 +3,12 @@ package de.dragonrex.serverdashboard.controller;
 import de.dragonrex.serverdashboard.config.AppConfig;
 import de.dragonrex.serverdashboard.user.UserManager;
 import io.javalin.Javalin;
+import io.javalin.http.Context;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 public class LoginController {
@@ -14,7 +16,7 @@ public class LoginController {
 
     private final UserManager userManager;
     private final AppConfig appConfig;
-    private final Map<String, Integer> loginAttempts = new HashMap<>();
+    private final Map<String, Integer> loginAttempts = new ConcurrentHashMap<>();
 
     public LoginController(Javalin app, UserManager userManager, AppConfig appConfig) {
         this.userManager = userManager;
@@ -37,38 +39,8 @@ public class LoginController {
                 return;
             }
 
-            if (isValidUser(username, password)) {
-                resetLoginAttempts(clientIp);
-
-                ctx.sessionAttribute("username", username);
-                ctx.sessionAttribute("loginTime", System.currentTimeMillis());
-
-                String userRole = getUserRole(username.trim());
-                ctx.sessionAttribute("userRole", userRole);
-                LOGGER.info("Benutzerrolle für " + username + ": " + userRole);
-
-                ctx.status(200);
-
-                if (contentType != null && contentType.contains("application/json")) {
-                    ctx.json(Map.of("success", true, "message", "Erfolgreich angemeldet", "redirect", "/dashboard.html"));
-                } else {
-                    ctx.redirect("/dashboard.html");
-                }
-
-                LOGGER.info("Erfolgreiche Anmeldung: " + username + " von IP: " + clientIp);
-            } else {
-                incrementLoginAttempts(clientIp);
-
-                ctx.status(401);
-
-                if (contentType != null && contentType.contains("application/json")) {
-                    ctx.json(Map.of("success", false, "message", "Ungültiger Benutzername oder Passwort."));
-                } else {
-                    ctx.result("Ungültiger Benutzername oder Passwort.");
-                }
-
-                LOGGER.warning("Fehlgeschlagene Anmeldung für: " + username + " von IP: " + clientIp);
-            }
+            ctx.future(() -> isValidUser(username, password)
+                .thenAccept(valid -> handleLoginResult(ctx, username, clientIp, contentType, valid)));
         });
 
         app.post("/api/logout", ctx -> {
@@ -113,14 +85,50 @@ public class LoginController {
         });
     }
 
-    private boolean isValidUser(String username, String password) {
+    private void handleLoginResult(Context ctx, String username, String clientIp, String contentType, boolean valid) {
+        if (valid) {
+            resetLoginAttempts(clientIp);
+
+            ctx.sessionAttribute("username", username);
+            ctx.sessionAttribute("loginTime", System.currentTimeMillis());
+
+            String userRole = getUserRole(username.trim());
+            ctx.sessionAttribute("userRole", userRole);
+            LOGGER.info("Benutzerrolle für " + username + ": " + userRole);
+
+            ctx.status(200);
+
+            if (contentType != null && contentType.contains("application/json")) {
+                ctx.json(Map.of("success", true, "message", "Erfolgreich angemeldet", "redirect", "/dashboard.html"));
+            } else {
+                ctx.redirect("/dashboard.html");
+            }
+
+            LOGGER.info("Erfolgreiche Anmeldung: " + username + " von IP: " + clientIp);
+        } else {
+            incrementLoginAttempts(clientIp);
+
+            ctx.status(401);
+
+            if (contentType != null && contentType.contains("application/json")) {
+                ctx.json(Map.of("success", false, "message", "Ungültiger Benutzername oder Passwort."));
+            } else {
+                ctx.result("Ungültiger Benutzername oder Passwort.");
+            }
+
+            LOGGER.warning("Fehlgeschlagene Anmeldung für: " + username + " von IP: " + clientIp);
+        }
+    }
+
+    // Only the database lookup is asynchronous; config users are checked inline.
+    private CompletableFuture<Boolean> isValidUser(String username, String password) {
         if (username == null || password == null || username.trim().isEmpty() || password.trim().isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         if (password.length() < appConfig.getPasswordMinLength()) {
             LOGGER.info("Passwort zu kurz für Benutzer: " + username);
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         String trimmedUsername = username.trim();
@@ -129,25 +137,25 @@ public class LoginController {
         if (adminConfig.username().equals(trimmedUsername) &&
             adminConfig.password().equals(password)) {
             LOGGER.info("Erfolgreiche Authentifizierung gegen Standard-Admin aus config.json: " + trimmedUsername);
-            return true;
+            return CompletableFuture.completedFuture(true);
         }
 
         for (AppConfig.UserConfig userConfig : appConfig.getDefaultUsers()) {
             if (userConfig.username().equals(trimmedUsername) &&
                 userConfig.password().equals(password)) {
                 LOGGER.info("Erfolgreiche Authentifizierung gegen Standard-Benutzer aus config.json: " + trimmedUsername);
-                return true;
+                return CompletableFuture.completedFuture(true);
             }
         }
 
-        boolean dbAuth = this.userManager.authenticateUser(trimmedUsername, password);
-        if (dbAuth) {
-            LOGGER.info("Erfolgreiche Authentifizierung gegen Datenbank: " + trimmedUsername);
-        } else {
-            LOGGER.info("Authentifizierung fehlgeschlagen für alle Methoden: " + trimmedUsername);
-        }
-
-        return dbAuth;
+        return this.userManager.authenticateUserAsync(trimmedUsername, password).thenApply(dbAuth -> {
+            if (dbAuth) {
+                LOGGER.info("Erfolgreiche Authentifizierung gegen Datenbank: " + trimmedUsername);
+            } else {
+                LOGGER.info("Authentifizierung fehlgeschlagen für alle Methoden: " + trimmedUsername);
+            }
+            return dbAuth;
+        });
     }
 
     private boolean isBlocked(String clientIp) {
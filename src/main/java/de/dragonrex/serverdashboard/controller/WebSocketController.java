@@ -1,42 +1,96 @@
 package de.dragonrex.serverdashboard.controller;
 
 import de.dragonrex.serverdashboard.models.ServerStatus;
+import de.dragonrex.serverdashboard.status.DashboardHub;
+import de.dragonrex.serverdashboard.status.FrameEncoding;
+import de.dragonrex.serverdashboard.status.StatusManager;
+import de.dragonrex.serverdashboard.status.StatusPublisher;
 import io.javalin.Javalin;
-import io.javalin.json.JavalinJackson;
+import io.javalin.websocket.WsMessageContext;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 public class WebSocketController {
-    private ServerStatus serverStatus = new ServerStatus();
+    private static final Logger LOGGER = Logger.getLogger(WebSocketController.class.getName());
+    private static final long INVALID_MESSAGE_WARNING_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
-    public WebSocketController(Javalin app) {
+    private final DashboardHub dashboardHub;
+    private final StatusManager statusManager;
+    private final StatusPublisher statusPublisher;
+    private final AtomicLong invalidMessages = new AtomicLong();
+    private final AtomicLong lastInvalidMessageWarning = new AtomicLong();
 
-        // TEST-DATA
-        this.serverStatus.setServerName("GMod-Server");
-        this.serverStatus.setCurrentPlayers(5);
-        this.serverStatus.setMaxPlayers(30);
+    public WebSocketController(Javalin app, DashboardHub dashboardHub, StatusManager statusManager) {
+        this.dashboardHub = dashboardHub;
+        this.statusManager = statusManager;
+        this.statusPublisher = statusManager.getPublisher();
 
         app.ws("/ws/serverstatus", ws -> {
-            ws.onConnect(ctx -> System.out.println("Gmod Server-Connection established."));
+            ws.onConnect(ctx -> LOGGER.info("Gmod Server-Connection established."));
             ws.onMessage(ctx -> {
                 ServerStatus newStatus = ctx.messageAsClass(ServerStatus.class);
-                serverStatus = newStatus;
-                System.out.println("WebSocket-Update received: " + newStatus.toString());
-
-
-                app.ws("/ws/dashboard", dashboardCtx -> {
-                    if (ctx.sessionAttribute("username") != null) {
-                        ctx.send(ctx.message());
-                    }
-                });
+                this.statusManager.ingest(resolveServerId(ctx, newStatus), newStatus);
+                LOGGER.fine("WebSocket-Update received: " + newStatus);
             });
-            ws.onClose(ctx -> System.out.println("WebSocket-Connection to the Gmod Server was closed."));
-            ws.onError(ctx -> System.err.println("WebSocket-Error: " + ctx.error()));
+            ws.onClose(ctx -> LOGGER.info("WebSocket-Connection to the Gmod Server was closed."));
+            ws.onError(ctx -> LOGGER.warning("WebSocket-Error: " + ctx.error()));
         });
 
         app.ws("/ws/dashboard", ws -> {
             ws.onConnect(ctx -> {
-                System.out.println("Dashboard-Client connected.");
-                ctx.send(JavalinJackson.defaultMapper().writeValueAsString(serverStatus));
+                if (ctx.sessionAttribute("username") == null) {
+                    ctx.closeSession(4401, "Nicht eingeloggt.");
+                    return;
+                }
+
+                LOGGER.info("Dashboard-Client connected: " + ctx.sessionId());
+                this.dashboardHub.register(ctx, FrameEncoding.fromParam(ctx.queryParam("encoding")));
+                this.statusPublisher.sendSnapshot(ctx);
             });
+            ws.onMessage(ctx -> {
+                try {
+                    JSONObject message = new JSONObject(ctx.message());
+                    if ("resync".equals(message.optString("type"))) {
+                        this.statusPublisher.sendSnapshot(ctx);
+                    }
+                } catch (JSONException e) {
+                    logInvalidMessage(ctx.sessionId(), e);
+                }
+            });
+            ws.onClose(this.dashboardHub::unregister);
+            ws.onError(this.dashboardHub::unregister);
         });
     }
+
+    // A client can send bad messages in a loop, so warnings are limited to one per interval;
+    // every message is still logged at FINE.
+    private void logInvalidMessage(String sessionId, JSONException e) {
+        LOGGER.fine("Ungültige Nachricht vom Dashboard-Client " + sessionId + ": " + e.getMessage());
+        this.invalidMessages.incrementAndGet();
+
+        long now = System.currentTimeMillis();
+        long last = this.lastInvalidMessageWarning.get();
+        if (now - last >= INVALID_MESSAGE_WARNING_INTERVAL_MILLIS && this.lastInvalidMessageWarning.compareAndSet(last, now)) {
+            LOGGER.warning("Ungültige Nachrichten vom Dashboard-Client: " + this.invalidMessages.getAndSet(0)
+                    + " seit der letzten Meldung, zuletzt von " + sessionId + ": " + e.getMessage());
+        }
+    }
+
+    private String resolveServerId(WsMessageContext ctx, ServerStatus status) {
+        if (status.getServerId() != null && !status.getServerId().isBlank()) {
+            return status.getServerId();
+        }
+        String queryId = ctx.queryParam("id");
+        if (queryId != null && !queryId.isBlank()) {
+            return queryId;
+        }
+        if (status.getServerName() != null && !status.getServerName().isBlank()) {
+            return status.getServerName();
+        }
+        return ctx.sessionId();
+    }
 }
@@ -1,7 +1,9 @@
 package de.dragonrex.serverdashboard.database;
 
 import com.zaxxer.hikari.HikariConfig;
+import de.dragonrex.serverdashboard.database.metrics.AdaptivePoolSizer;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Optional;
 
@@ -12,6 +14,21 @@ public class Database {
     private final Optional<String> password;
     private final Optional<Boolean> noSQL;
     private HikariConfig config;
+    // 0 matches the connection pool size.
+    @Setter
+    private int asyncMaxConcurrency;
+    @Setter
+    private PoolSettings poolSettings = PoolSettings.DEFAULT;
+    // null keeps the pool at poolSettings.maximumPoolSize().
+    @Setter
+    private AdaptivePoolSizer.Settings adaptivePoolSizing;
+    @Setter
+    private long slowQueryThresholdMillis = 200;
+    // Captures the plan of slow SQL statements in the background; ignored by MongoDB.
+    @Setter
+    private boolean slowQueryExplain = true;
+    @Setter
+    private int queryMetricsMaxStatements = 500;
 
     public Database(String jdbcUrl, Optional<String> username, Optional<String> password, Optional<Boolean> noSQL) {
         this.jdbcUrl = jdbcUrl;
@@ -26,9 +43,12 @@ public class Database {
 
     public void configure() {
         this.config = new HikariConfig();
-        config.setConnectionTimeout(10000);
-        config.setMaximumPoolSize(8);
-        config.setMinimumIdle(1);
+        config.setConnectionTimeout(this.poolSettings.connectionTimeoutMillis());
+        config.setMaximumPoolSize(this.poolSettings.maximumPoolSize());
+        config.setMinimumIdle(Math.min(this.poolSettings.minimumIdle(), this.poolSettings.maximumPoolSize()));
+        config.setIdleTimeout(this.poolSettings.idleTimeoutMillis());
+        config.setMaxLifetime(this.poolSettings.maxLifetimeMillis());
+        config.setLeakDetectionThreshold(this.poolSettings.leakDetectionThresholdMillis());
         config.setJdbcUrl(this.jdbcUrl);
         this.username.ifPresent(username -> config.setUsername(username));
         this.password.ifPresent(password -> config.setPassword(password));
@@ -0,0 +1,10 @@
+package de.dragonrex.serverdashboard.database;
+
+// Row-at-a-time view over an open result; the underlying connection or cursor stays open until close().
+public interface DatabaseCursor extends ResultRow, AutoCloseable {
+
+    boolean next();
+
+    @Override
+    void close();
+}
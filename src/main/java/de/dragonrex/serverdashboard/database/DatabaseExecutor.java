@@ -0,0 +1,76 @@
+package de.dragonrex.serverdashboard.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Runs blocking database calls on virtual threads. The semaphore caps them at the connection pool size,
+// so excess work parks cheaply here instead of piling up on the pool's connection timeout.
+public class DatabaseExecutor {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong failedTasks = new AtomicLong();
+
+    public DatabaseExecutor(String name, int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-" + name.toLowerCase() + "-", 0).factory());
+    }
+
+    public static DatabaseExecutor forPool(String name, int configuredConcurrency, int poolSize) {
+        return new DatabaseExecutor(name, configuredConcurrency > 0 ? configuredConcurrency : poolSize);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        this.submittedTasks.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                this.permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.failedTasks.incrementAndGet();
+                throw new CompletionException(e);
+            }
+
+            try {
+                T result = task.get();
+                this.completedTasks.incrementAndGet();
+                return result;
+            } catch (RuntimeException e) {
+                this.failedTasks.incrementAndGet();
+                throw e;
+            } finally {
+                this.permits.release();
+            }
+        }, this.executor);
+    }
+
+    public int getMaxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrency", this.maxConcurrency);
+        stats.put("activeTasks", this.maxConcurrency - this.permits.availablePermits());
+        stats.put("waitingTasks", this.permits.getQueueLength());
+        stats.put("submittedTasks", this.submittedTasks.get());
+        stats.put("completedTasks", this.completedTasks.get());
+        stats.put("failedTasks", this.failedTasks.get());
+        return stats;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
@@ -1,28 +1,45 @@
 package de.dragonrex.serverdashboard.database;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class DatabaseResult {
-    private final List<Row> rows;
+public class DatabaseResult implements ResultRow {
+    private List<Row> rows;
     private int currentRow = -1;
 
     public DatabaseResult(List<Row> rows) {
         this.rows = rows;
     }
 
-    public String getString(String column) {
-        Object value = getCurrentRow().get(column);
+    @Override
+    public Object getObject(String column) {
+        return getCurrentRow().get(column);
+    }
+
+    public String getString(int index) {
+        Object value = getCurrentRow().get(index);
         return value != null ? value.toString() : null;
     }
 
-    public int getInt(String column) {
-        Object value = getCurrentRow().get(column);
-        if (value instanceof Number) {
-            return ((Number) value).intValue();
-        }
-        return 0;
+    public int getInt(int index) {
+        return ResultRow.toInt("#" + index, getCurrentRow().get(index));
+    }
+
+    // Resolves a column once so loops over many rows can read by index.
+    public int columnIndex(String column) {
+        return getCurrentRow().schema.indexOf(column);
+    }
+
+    // Independent cursor over the same rows; rows are never modified after a result is built.
+    public DatabaseResult copy() {
+        return new DatabaseResult(rows);
+    }
+
+    public int size() {
+        return rows.size();
     }
 
     public boolean next() {
@@ -31,31 +48,108 @@ public class DatabaseResult {
     }
 
     public void close() {
-        try {
-            if (rows != null && !rows.isEmpty()) {
-                rows.clear();
-            }
-        } catch (UnsupportedOperationException e) {
-            System.out.println("DatabaseResult: Liste ist unveränderlich, close() übersprungen");
-        }
+        rows = List.of();
+        currentRow = -1;
     }
 
     private Row getCurrentRow() {
         if (currentRow >= 0 && currentRow < rows.size()) {
             return rows.get(currentRow);
         }
-        return new Row();
+        return Row.EMPTY;
+    }
+
+    // Column name to index mapping, built once per result and shared by all of its rows.
+    public static final class Schema {
+        private final String[] columns;
+        private final Map<String, Integer> indexes;
+
+        private Schema(String[] columns) {
+            this.columns = columns;
+            this.indexes = new HashMap<>(columns.length * 2);
+            for (int i = 0; i < columns.length; i++) {
+                this.indexes.putIfAbsent(columns[i], i);
+            }
+        }
+
+        public static Schema of(String... columns) {
+            return new Schema(columns.clone());
+        }
+
+        public static Schema of(Collection<String> columns) {
+            return new Schema(columns.toArray(new String[0]));
+        }
+
+        public int indexOf(String column) {
+            Integer index = this.indexes.get(column);
+            return index != null ? index : -1;
+        }
+
+        public int size() {
+            return this.columns.length;
+        }
+
+        public String column(int index) {
+            return this.columns[index];
+        }
+
+        public boolean matches(Collection<String> columns) {
+            if (columns.size() != this.columns.length) {
+                return false;
+            }
+            int i = 0;
+            for (String column : columns) {
+                if (!column.equals(this.columns[i++])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Schema with(String column) {
+            String[] extended = Arrays.copyOf(this.columns, this.columns.length + 1);
+            extended[this.columns.length] = column;
+            return new Schema(extended);
+        }
     }
 
     public static class Row {
-        private final Map<String, Object> data = new HashMap<>();
+        private static final Schema EMPTY_SCHEMA = new Schema(new String[0]);
+        private static final Row EMPTY = new Row();
 
+        private Schema schema;
+        private Object[] values;
+
+        public Row() {
+            this(EMPTY_SCHEMA, new Object[0]);
+        }
+
+        public Row(Schema schema, Object[] values) {
+            this.schema = schema;
+            this.values = values;
+        }
+
+        // Unknown columns give this row its own extended schema; a shared schema is never mutated.
         public void put(String column, Object value) {
-            data.put(column, value);
+            int index = this.schema.indexOf(column);
+            if (index < 0) {
+                this.schema = this.schema.with(column);
+                this.values = Arrays.copyOf(this.values, this.schema.size());
+                index = this.schema.size() - 1;
+            }
+            this.values[index] = value;
         }
 
         public Object get(String column) {
-            return data.get(column);
+            return get(this.schema.indexOf(column));
+        }
+
+        public Object get(int index) {
+            return index >= 0 && index < this.values.length ? this.values[index] : null;
+        }
+
+        public Schema getSchema() {
+            return this.schema;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package de.dragonrex.serverdashboard.database;
+
+// The backend did not answer in time or is known to be down; retrying immediately will not help.
+public class DatabaseUnavailableException extends RuntimeException {
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+
+    public DatabaseUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
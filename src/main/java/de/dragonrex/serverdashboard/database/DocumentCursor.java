@@ -0,0 +1,24 @@
+package de.dragonrex.serverdashboard.database;
+
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+
+public class DocumentCursor extends DocumentRow implements DatabaseCursor {
+    private final MongoCursor<Document> cursor;
+
+    public DocumentCursor(MongoCursor<Document> cursor) {
+        super(null);
+        this.cursor = cursor;
+    }
+
+    @Override
+    public boolean next() {
+        this.document = this.cursor.hasNext() ? this.cursor.next() : null;
+        return this.document != null;
+    }
+
+    @Override
+    public void close() {
+        this.cursor.close();
+    }
+}
@@ -0,0 +1,24 @@
+package de.dragonrex.serverdashboard.database;
+
+import org.bson.Document;
+
+public class DocumentRow implements ResultRow {
+    protected Document document;
+
+    public DocumentRow(Document document) {
+        this.document = document;
+    }
+
+    public DocumentRow wrap(Document document) {
+        this.document = document;
+        return this;
+    }
+
+    @Override
+    public Object getObject(String column) {
+        if (this.document == null) {
+            throw new IllegalStateException("Database cursor is not positioned on a document");
+        }
+        return this.document.get(column);
+    }
+}
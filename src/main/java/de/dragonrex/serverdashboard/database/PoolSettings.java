@@ -0,0 +1,7 @@
+package de.dragonrex.serverdashboard.database;
+
+// A leak detection threshold of 0 turns leak detection off.
+public record PoolSettings(int maximumPoolSize, int minimumIdle, long connectionTimeoutMillis, long idleTimeoutMillis,
+                           long maxLifetimeMillis, long leakDetectionThresholdMillis) {
+    public static final PoolSettings DEFAULT = new PoolSettings(8, 1, 10000, 600000, 1800000, 0);
+}
@@ -0,0 +1,123 @@
+package de.dragonrex.serverdashboard.database;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+// Typed access to the current row. NULL maps to 0/false/null; values that cannot be converted throw.
+public interface ResultRow {
+
+    Object getObject(String column);
+
+    default String getString(String column) {
+        Object value = getObject(column);
+        return value != null ? value.toString() : null;
+    }
+
+    default int getInt(String column) {
+        return toInt(column, getObject(column));
+    }
+
+    // Shared with index-based getters; column only names the value in the error message.
+    static int toInt(String column, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw conversionError(column, value, "int");
+        }
+    }
+
+    default long getLong(String column) {
+        Object value = getObject(column);
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw conversionError(column, value, "long");
+        }
+    }
+
+    default double getDouble(String column) {
+        Object value = getObject(column);
+        if (value == null) {
+            return 0.0;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw conversionError(column, value, "double");
+        }
+    }
+
+    default boolean getBoolean(String column) {
+        Object value = getObject(column);
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof Number number) {
+            return number.longValue() != 0;
+        }
+        return switch (value.toString().trim().toLowerCase()) {
+            case "true", "1" -> true;
+            case "false", "0" -> false;
+            default -> throw conversionError(column, value, "boolean");
+        };
+    }
+
+    // Numbers are epoch milliseconds; strings are ISO-8601 or SQL timestamps in UTC.
+    default Instant getInstant(String column) {
+        Object value = getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        if (value instanceof Number number) {
+            return Instant.ofEpochMilli(number.longValue());
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC);
+        }
+
+        String text = value.toString().trim();
+        try {
+            return text.endsWith("Z") || text.contains("+") ? OffsetDateTime.parse(text).toInstant()
+                    : LocalDateTime.parse(text.replace(' ', 'T')).toInstant(ZoneOffset.UTC);
+        } catch (RuntimeException e) {
+            throw conversionError(column, value, "instant");
+        }
+    }
+
+    private static IllegalStateException conversionError(String column, Object value, String type) {
+        return new IllegalStateException("Column " + column + " cannot be read as " + type + ": " + value);
+    }
+}
@@ -0,0 +1,47 @@
+package de.dragonrex.serverdashboard.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ResultSetCursor extends ResultSetRow implements DatabaseCursor {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final boolean restoreAutoCommit;
+    private boolean closed;
+
+    public ResultSetCursor(Connection connection, PreparedStatement statement, ResultSet resultSet, boolean restoreAutoCommit) {
+        super(resultSet);
+        this.connection = connection;
+        this.statement = statement;
+        this.restoreAutoCommit = restoreAutoCommit;
+    }
+
+    @Override
+    public boolean next() {
+        try {
+            return this.resultSet.next();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to advance database cursor", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        try (Connection ignored = this.connection; PreparedStatement ignoredStatement = this.statement) {
+            this.resultSet.close();
+            if (this.restoreAutoCommit) {
+                this.connection.commit();
+                this.connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to close database cursor", e);
+        }
+    }
+}
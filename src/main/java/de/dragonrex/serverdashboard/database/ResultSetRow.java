@@ -0,0 +1,71 @@
+package de.dragonrex.serverdashboard.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Reads straight from the live ResultSet, so numeric columns never go through a boxed value.
+public class ResultSetRow implements ResultRow {
+    protected final ResultSet resultSet;
+
+    public ResultSetRow(ResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    @Override
+    public Object getObject(String column) {
+        try {
+            return this.resultSet.getObject(column);
+        } catch (SQLException e) {
+            throw readError(column, e);
+        }
+    }
+
+    @Override
+    public String getString(String column) {
+        try {
+            return this.resultSet.getString(column);
+        } catch (SQLException e) {
+            throw readError(column, e);
+        }
+    }
+
+    @Override
+    public int getInt(String column) {
+        try {
+            return this.resultSet.getInt(column);
+        } catch (SQLException e) {
+            throw readError(column, e);
+        }
+    }
+
+    @Override
+    public long getLong(String column) {
+        try {
+            return this.resultSet.getLong(column);
+        } catch (SQLException e) {
+            throw readError(column, e);
+        }
+    }
+
+    @Override
+    public double getDouble(String column) {
+        try {
+            return this.resultSet.getDouble(column);
+        } catch (SQLException e) {
+            throw readError(column, e);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String column) {
+        try {
+            return this.resultSet.getBoolean(column);
+        } catch (SQLException e) {
+            throw readError(column, e);
+        }
+    }
+
+    private RuntimeException readError(String column, SQLException e) {
+        return new RuntimeException("Failed to read column from result set: " + column, e);
+    }
+}
@@ -0,0 +1,7 @@
+package de.dragonrex.serverdashboard.database;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultRow row);
+}
@@ -0,0 +1,158 @@
+package de.dragonrex.serverdashboard.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pins one connection and keeps prepared statements open until the transaction ends,
+// so repeating a query within the block only rebinds its parameters.
+// Each cache is a small LRU: dynamically built SQL (IN-lists, ad-hoc queries) cannot pile up native
+// statement handles on long-lived connections such as the SQLite writer's.
+public class SQLTransaction implements Transaction, AutoCloseable {
+    private static final int DEFAULT_MAX_CACHED_STATEMENTS = 64;
+
+    private final Connection connection;
+    private final StatementCache queryStatements;
+    private final StatementCache updateStatements;
+    private final StatementCache batchStatements;
+    // Written only by the thread using the transaction; volatile so stats readers see a current value.
+    private volatile long evictedStatements;
+
+    public SQLTransaction(Connection connection) {
+        this(connection, DEFAULT_MAX_CACHED_STATEMENTS);
+    }
+
+    public SQLTransaction(Connection connection, int maxCachedStatements) {
+        this.connection = connection;
+        this.queryStatements = new StatementCache(maxCachedStatements);
+        this.updateStatements = new StatementCache(maxCachedStatements);
+        this.batchStatements = new StatementCache(maxCachedStatements);
+    }
+
+    @Override
+    public DatabaseResult query(String query, Object... args) {
+        try {
+            PreparedStatement statement = prepareQuery(query, args);
+            return SQLUtility.getDatabaseResult(statement);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to execute query in transaction: " + query, e);
+        }
+    }
+
+    @Override
+    public <T> List<T> query(String query, RowMapper<T> mapper, Object... args) {
+        try {
+            PreparedStatement statement = prepareQuery(query, args);
+            List<T> results = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetRow row = new ResultSetRow(resultSet);
+                while (resultSet.next()) {
+                    results.add(mapper.map(row));
+                }
+            }
+            return results;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to execute query in transaction: " + query, e);
+        }
+    }
+
+    @Override
+    public DatabaseResult update(String query, Object... args) {
+        try {
+            boolean insert = SQLUtility.isInsert(query);
+            PreparedStatement statement = this.updateStatements.get(query);
+            if (statement == null) {
+                statement = insert
+                        ? this.connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+                        : this.connection.prepareStatement(query);
+                this.updateStatements.put(query, statement);
+            }
+            SQLUtility.bind(statement, args);
+            return SQLUtility.executeUpdate(statement, insert);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to execute update in transaction: " + query, e);
+        }
+    }
+
+    @Override
+    public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+        try {
+            PreparedStatement statement = this.batchStatements.get(query);
+            if (statement == null) {
+                statement = this.connection.prepareStatement(query);
+                this.batchStatements.put(query, statement);
+            }
+            return SQLUtility.executeBatch(statement, batchArgs);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to execute batch update in transaction: " + query, e);
+        }
+    }
+
+    private PreparedStatement prepareQuery(String query, Object[] args) throws SQLException {
+        PreparedStatement statement = this.queryStatements.get(query);
+        if (statement == null) {
+            statement = this.connection.prepareStatement(query);
+            this.queryStatements.put(query, statement);
+        }
+        SQLUtility.bind(statement, args);
+        return statement;
+    }
+
+    public int getCachedStatementCount() {
+        return this.queryStatements.size() + this.updateStatements.size() + this.batchStatements.size();
+    }
+
+    public long getEvictedStatementCount() {
+        return this.evictedStatements;
+    }
+
+    @Override
+    public void close() {
+        for (PreparedStatement statement : this.queryStatements.values()) {
+            closeQuietly(statement);
+        }
+        for (PreparedStatement statement : this.updateStatements.values()) {
+            closeQuietly(statement);
+        }
+        for (PreparedStatement statement : this.batchStatements.values()) {
+            closeQuietly(statement);
+        }
+        this.queryStatements.clear();
+        this.updateStatements.clear();
+        this.batchStatements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // Access-ordered, so the least recently used statement is closed when a new one exceeds the limit.
+    // Eviction only happens while preparing a different query, never for the statement in use.
+    private final class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+        private final int maxSize;
+
+        private StatementCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = Math.max(1, maxSize);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() <= this.maxSize) {
+                return false;
+            }
+            closeQuietly(eldest.getValue());
+            evictedStatements++;
+            return true;
+        }
+    }
+}
@@ -4,25 +4,77 @@ import org.jetbrains.annotations.NotNull;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
 public class SQLUtility {
+    private static final DatabaseResult.Schema UPDATE_SCHEMA = DatabaseResult.Schema.of("affectedRows");
+    private static final DatabaseResult.Schema INSERT_SCHEMA = DatabaseResult.Schema.of("affectedRows", "generatedKey");
+    private static final DatabaseResult.Schema BATCH_SCHEMA = DatabaseResult.Schema.of("index", "affectedRows");
+
+    public static void bind(PreparedStatement statement, Object[] args) throws SQLException {
+        statement.clearParameters();
+        for (int i = 0; i < args.length; i++) {
+            statement.setObject(i + 1, args[i]);
+        }
+    }
+
+    public static boolean isInsert(String query) {
+        return query.stripLeading().regionMatches(true, 0, "INSERT", 0, 6);
+    }
+
+    // Inserts must have been prepared with RETURN_GENERATED_KEYS; the key comes back with the update count.
+    // A skipped insert (ON CONFLICT DO NOTHING, INSERT IGNORE) reports no key: SQLite would otherwise
+    // hand back the last_insert_rowid() of an earlier statement.
+    @NotNull
+    public static DatabaseResult executeUpdate(PreparedStatement statement, boolean insert) throws SQLException {
+        int affectedRows = statement.executeUpdate();
+        if (!insert) {
+            return new DatabaseResult(List.of(new DatabaseResult.Row(UPDATE_SCHEMA, new Object[]{affectedRows})));
+        }
+
+        Object generatedKey = null;
+        if (affectedRows > 0) {
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys != null && keys.next()) {
+                    generatedKey = keys.getObject(1);
+                }
+            }
+        }
+        return new DatabaseResult(List.of(new DatabaseResult.Row(INSERT_SCHEMA, new Object[]{affectedRows, generatedKey})));
+    }
+
+    // One row per batch item; drivers may report Statement.SUCCESS_NO_INFO instead of a count.
+    @NotNull
+    public static DatabaseResult executeBatch(PreparedStatement statement, List<Object[]> batchArgs) throws SQLException {
+        for (Object[] args : batchArgs) {
+            bind(statement, args);
+            statement.addBatch();
+        }
+
+        int[] counts = statement.executeBatch();
+        List<DatabaseResult.Row> rows = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            rows.add(new DatabaseResult.Row(BATCH_SCHEMA, new Object[]{i, counts[i]}));
+        }
+        return new DatabaseResult(rows);
+    }
 
     @NotNull
     public static DatabaseResult getDatabaseResult(PreparedStatement statement) throws SQLException {
         ResultSet resultSet = statement.executeQuery();
         List<DatabaseResult.Row> rows = new ArrayList<>();
         try {
+            DatabaseResult.Schema schema = createSchema(resultSet.getMetaData());
+            int columnCount = schema.size();
             while (resultSet.next()) {
-                DatabaseResult.Row row = new DatabaseResult.Row();
-                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
-                    String columnName = resultSet.getMetaData().getColumnName(i);
-                    Object value = resultSet.getObject(i);
-                    row.put(columnName, value);
+                Object[] values = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    values[i] = resultSet.getObject(i + 1);
                 }
-                rows.add(row);
+                rows.add(new DatabaseResult.Row(schema, values));
             }
             resultSet.close();
         } catch (SQLException e) {
@@ -30,4 +82,13 @@ public class SQLUtility {
         }
         return new DatabaseResult(rows);
     }
+
+    // Labels rather than names, so "COUNT(*) AS count" is addressable as "count" on every driver.
+    private static DatabaseResult.Schema createSchema(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        return DatabaseResult.Schema.of(columns);
+    }
 }
@@ -0,0 +1,15 @@
+package de.dragonrex.serverdashboard.database;
+
+import java.util.List;
+
+// Statements issued through a transaction share one connection and commit or roll back together.
+public interface Transaction {
+
+    DatabaseResult query(String query, Object... args);
+
+    <T> List<T> query(String query, RowMapper<T> mapper, Object... args);
+
+    DatabaseResult update(String query, Object... args);
+
+    DatabaseResult batchUpdate(String query, List<Object[]> batchArgs);
+}
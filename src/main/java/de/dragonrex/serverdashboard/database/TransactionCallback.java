@@ -0,0 +1,7 @@
+package de.dragonrex.serverdashboard.database;
+
+@FunctionalInterface
+public interface TransactionCallback<T> {
+
+    T execute(Transaction transaction);
+}
@@ -0,0 +1,171 @@
+package de.dragonrex.serverdashboard.database.backup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// Runs backups on its own thread so neither requests nor the status writer ever wait for one.
+// Files are written under a temporary name and renamed when complete; only the newest ones are kept.
+public class BackupService {
+    private static final Logger LOGGER = Logger.getLogger(BackupService.class.getName());
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    private final BackupStrategy strategy;
+    private final Path directory;
+    private final String prefix;
+    private final String extension;
+    private final long intervalMillis;
+    private final int retentionCount;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong successfulBackups = new AtomicLong();
+    private final AtomicLong failedBackups = new AtomicLong();
+    private volatile long lastBackupAt;
+    private volatile long lastDurationMillis;
+    private volatile long lastSizeBytes;
+    private volatile String lastError;
+
+    public BackupService(BackupStrategy strategy, Path directory, String prefix, String extension,
+                         long intervalMillis, int retentionCount) {
+        this.strategy = strategy;
+        this.directory = directory;
+        this.prefix = prefix;
+        this.extension = extension;
+        this.intervalMillis = Math.max(TimeUnit.MINUTES.toMillis(1), intervalMillis);
+        this.retentionCount = Math.max(1, retentionCount);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "database-backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    // The first run is due one interval after the newest existing backup, so restarts do not skip or repeat backups.
+    public void start() {
+        long newest = listBackups().stream().findFirst().map(this::lastModified).orElse(0L);
+        long initialDelay = Math.max(0, newest + this.intervalMillis - System.currentTimeMillis());
+        this.scheduler.scheduleAtFixedRate(this::runBackup, initialDelay, this.intervalMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Datenbank-Backup geplant: alle " + TimeUnit.MILLISECONDS.toMinutes(this.intervalMillis)
+                + " Minuten, nächstes in " + TimeUnit.MILLISECONDS.toMinutes(initialDelay) + " Minuten");
+    }
+
+    // Queued behind any running backup; the backup thread never runs two at once.
+    public CompletableFuture<Map<String, Object>> triggerBackup() {
+        return CompletableFuture.supplyAsync(() -> {
+            runBackup();
+            return getStats();
+        }, this.scheduler);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", this.directory.toAbsolutePath().toString());
+        stats.put("intervalMillis", this.intervalMillis);
+        stats.put("retentionCount", this.retentionCount);
+        stats.put("successfulBackups", this.successfulBackups.get());
+        stats.put("failedBackups", this.failedBackups.get());
+        stats.put("lastBackupAt", this.lastBackupAt);
+        stats.put("lastDurationMillis", this.lastDurationMillis);
+        stats.put("lastSizeBytes", this.lastSizeBytes);
+        stats.put("lastThroughputBytesPerSecond", this.lastDurationMillis == 0 ? 0 : this.lastSizeBytes * 1000 / this.lastDurationMillis);
+        stats.put("lastError", this.lastError);
+        stats.put("backupFiles", listBackups().size());
+        return stats;
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+        try {
+            this.scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runBackup() {
+        String name = this.prefix + "-" + FILE_TIMESTAMP.format(Instant.now()) + this.extension;
+        Path target = this.directory.resolve(name);
+        Path temporary = this.directory.resolve(name + ".tmp");
+        long start = System.currentTimeMillis();
+
+        try {
+            Files.createDirectories(this.directory);
+            Files.deleteIfExists(temporary);
+            this.strategy.backup(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            this.lastDurationMillis = System.currentTimeMillis() - start;
+            this.lastSizeBytes = Files.size(target);
+            this.lastBackupAt = start;
+            this.lastError = null;
+            this.successfulBackups.incrementAndGet();
+            LOGGER.info("Datenbank-Backup erstellt: " + target + " (" + this.lastSizeBytes / 1024 + " KB in " + this.lastDurationMillis + " ms)");
+
+            rotate();
+        } catch (Exception e) {
+            this.failedBackups.incrementAndGet();
+            this.lastError = e.getMessage();
+            LOGGER.log(Level.SEVERE, "Datenbank-Backup fehlgeschlagen", e);
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException cleanupError) {
+                LOGGER.log(Level.WARNING, "Temporäre Backup-Datei konnte nicht gelöscht werden: " + temporary, cleanupError);
+            }
+        }
+    }
+
+    private void rotate() {
+        List<Path> backups = listBackups();
+        for (Path backup : backups.subList(Math.min(this.retentionCount, backups.size()), backups.size())) {
+            try {
+                Files.delete(backup);
+                LOGGER.info("Altes Datenbank-Backup gelöscht: " + backup);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Altes Datenbank-Backup konnte nicht gelöscht werden: " + backup, e);
+            }
+        }
+    }
+
+    // Newest first; the timestamp in the file name sorts chronologically.
+    private List<Path> listBackups() {
+        if (!Files.isDirectory(this.directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(this.directory)) {
+            return files.filter(file -> {
+                        String fileName = file.getFileName().toString();
+                        return fileName.startsWith(this.prefix + "-") && fileName.endsWith(this.extension);
+                    })
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Backup-Verzeichnis konnte nicht gelesen werden: " + this.directory, e);
+            return List.of();
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
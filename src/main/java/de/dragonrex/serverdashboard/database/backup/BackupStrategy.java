@@ -0,0 +1,9 @@
+package de.dragonrex.serverdashboard.database.backup;
+
+import java.nio.file.Path;
+
+// Writes a complete, consistent copy of the database to the given file.
+@FunctionalInterface
+public interface BackupStrategy {
+    void backup(Path target) throws Exception;
+}
@@ -0,0 +1,79 @@
+package de.dragonrex.serverdashboard.database.backup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Dump hook for backends without an in-process backup, e.g. ["mysqldump", "--single-transaction", "dashboard"]
+// or ["pg_dump", "-Fc", "-f", "{file}", "dashboard"]. Without a {file} placeholder, stdout is written to the backup file.
+// Arguments are passed to the process as configured, so paths with spaces need no quoting.
+public class CommandBackupStrategy implements BackupStrategy {
+    private static final Logger LOGGER = Logger.getLogger(CommandBackupStrategy.class.getName());
+    private static final String FILE_PLACEHOLDER = "{file}";
+    private static final int MAX_ERROR_OUTPUT_CHARS = 4000;
+
+    private final List<String> command;
+    private final long timeoutMillis;
+
+    public CommandBackupStrategy(List<String> command, long timeoutMillis) {
+        this.command = List.copyOf(command);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void backup(Path target) throws Exception {
+        List<String> arguments = new ArrayList<>(this.command.size());
+        boolean placeholder = false;
+        for (String argument : this.command) {
+            placeholder |= argument.contains(FILE_PLACEHOLDER);
+            arguments.add(argument.replace(FILE_PLACEHOLDER, target.toAbsolutePath().toString()));
+        }
+
+        // stderr goes to a file rather than a pipe, so a chatty dump tool can never block on a full buffer.
+        Path errorOutput = Files.createTempFile("backup-command-", ".err");
+        try {
+            ProcessBuilder builder = new ProcessBuilder(arguments).redirectError(errorOutput.toFile());
+            if (!placeholder) {
+                builder.redirectOutput(target.toFile());
+            }
+
+            Process process = builder.start();
+            if (!process.waitFor(this.timeoutMillis, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("Backup command timed out after " + this.timeoutMillis + " ms" + describe(readErrorOutput(errorOutput)));
+            }
+
+            String stderr = readErrorOutput(errorOutput);
+            if (process.exitValue() != 0) {
+                throw new IOException("Backup command exited with code " + process.exitValue() + describe(stderr));
+            }
+            if (!stderr.isEmpty()) {
+                LOGGER.warning("Backup-Befehl " + arguments.get(0) + " meldete: " + stderr);
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(errorOutput);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Fehlerausgabe des Backup-Befehls konnte nicht gelöscht werden: " + errorOutput, e);
+            }
+        }
+    }
+
+    // Keeps the end of the output; dump tools print the actual cause last.
+    private static String readErrorOutput(Path errorOutput) throws IOException {
+        String output = new String(Files.readAllBytes(errorOutput), StandardCharsets.UTF_8).strip();
+        return output.length() > MAX_ERROR_OUTPUT_CHARS
+                ? "..." + output.substring(output.length() - MAX_ERROR_OUTPUT_CHARS)
+                : output;
+    }
+
+    private static String describe(String stderr) {
+        return stderr.isEmpty() ? "" : ": " + stderr;
+    }
+}
@@ -0,0 +1,152 @@
+package de.dragonrex.serverdashboard.database.maintenance;
+
+import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.processor.SQLiteProcessor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Keeps a long-running SQLite file compact and its statistics fresh. Every step is short: vacuum runs in
+// page chunks with pauses in between, and the WAL is only truncated once it has grown past a threshold.
+public class SQLiteMaintenanceService {
+    private static final Logger LOGGER = Logger.getLogger(SQLiteMaintenanceService.class.getName());
+    private static final long CHUNK_PAUSE_MILLIS = 50;
+
+    private final SQLiteProcessor processor;
+    private final Settings settings;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong vacuumedPages = new AtomicLong();
+    private final AtomicLong passiveCheckpoints = new AtomicLong();
+    private final AtomicLong truncateCheckpoints = new AtomicLong();
+    private final AtomicLong analyzeRuns = new AtomicLong();
+    private volatile long lastRunAt;
+    private volatile long lastRunMillis;
+    private volatile long lastAnalyzeAt;
+    private volatile Map<String, Object> lastCheckpoint = Map.of();
+    private volatile String lastError;
+
+    public SQLiteMaintenanceService(SQLiteProcessor processor, Settings settings) {
+        this.processor = processor;
+        this.settings = settings;
+        // ANALYZE already ran via PRAGMA optimize at connect, so the first full run waits one interval.
+        this.lastAnalyzeAt = System.currentTimeMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sqlite-maintenance");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long intervalMillis = Math.max(TimeUnit.MINUTES.toMillis(1), this.settings.intervalMillis());
+        this.scheduler.scheduleWithFixedDelay(this::runMaintenance, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("SQLite-Wartung geplant: alle " + TimeUnit.MILLISECONDS.toMinutes(intervalMillis) + " Minuten");
+    }
+
+    public CompletableFuture<Map<String, Object>> triggerMaintenance() {
+        return CompletableFuture.supplyAsync(() -> {
+            runMaintenance();
+            return getStats();
+        }, this.scheduler);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        DatabaseResult result = this.processor.getDatabaseStats();
+        if (result.next()) {
+            for (String column : new String[]{"databaseSize", "walSize", "pageCount", "freelistCount", "autoVacuum", "journalMode", "cacheSize"}) {
+                stats.put(column, result.getObject(column));
+            }
+        }
+        stats.put("runs", this.runs.get());
+        stats.put("lastRunAt", this.lastRunAt);
+        stats.put("lastRunMillis", this.lastRunMillis);
+        stats.put("vacuumedPages", this.vacuumedPages.get());
+        stats.put("passiveCheckpoints", this.passiveCheckpoints.get());
+        stats.put("truncateCheckpoints", this.truncateCheckpoints.get());
+        stats.put("lastCheckpoint", this.lastCheckpoint);
+        stats.put("analyzeRuns", this.analyzeRuns.get());
+        stats.put("lastAnalyzeAt", this.lastAnalyzeAt);
+        stats.put("lastError", this.lastError);
+        return stats;
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+        try {
+            this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runMaintenance() {
+        long start = System.currentTimeMillis();
+        try {
+            vacuum();
+            checkpoint();
+            this.processor.optimize();
+            if (start - this.lastAnalyzeAt >= this.settings.analyzeIntervalMillis()) {
+                this.processor.analyze();
+                this.lastAnalyzeAt = System.currentTimeMillis();
+                this.analyzeRuns.incrementAndGet();
+            }
+            this.lastError = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            this.lastError = e.getMessage();
+            LOGGER.log(Level.WARNING, "SQLite-Wartung fehlgeschlagen", e);
+        } finally {
+            this.lastRunAt = start;
+            this.lastRunMillis = System.currentTimeMillis() - start;
+            this.runs.incrementAndGet();
+        }
+    }
+
+    // Each chunk is its own short write transaction; the pause lets queued writers take the lock in between.
+    private void vacuum() throws InterruptedException {
+        for (int chunk = 0; chunk < this.settings.vacuumMaxChunks(); chunk++) {
+            int pages = this.processor.incrementalVacuum(this.settings.vacuumChunkPages());
+            this.vacuumedPages.addAndGet(pages);
+            if (pages < this.settings.vacuumChunkPages()) {
+                return;
+            }
+            Thread.sleep(CHUNK_PAUSE_MILLIS);
+        }
+    }
+
+    private void checkpoint() {
+        long walSize = this.processor.getWalSizeBytes();
+        boolean truncate = walSize >= this.settings.walTruncateBytes();
+        if (!truncate && walSize < this.settings.walPassiveBytes()) {
+            return;
+        }
+
+        DatabaseResult result = this.processor.checkpoint(truncate);
+        Map<String, Object> checkpoint = new LinkedHashMap<>();
+        checkpoint.put("mode", truncate ? "TRUNCATE" : "PASSIVE");
+        checkpoint.put("walSizeBefore", walSize);
+        if (result.next()) {
+            checkpoint.put("busy", result.getObject("busy"));
+            checkpoint.put("walFrames", result.getObject("walFrames"));
+            checkpoint.put("checkpointedFrames", result.getObject("checkpointedFrames"));
+        }
+        this.lastCheckpoint = checkpoint;
+        (truncate ? this.truncateCheckpoints : this.passiveCheckpoints).incrementAndGet();
+    }
+
+    public record Settings(long intervalMillis, int vacuumChunkPages, int vacuumMaxChunks, long analyzeIntervalMillis,
+                           long walPassiveBytes, long walTruncateBytes) {
+    }
+}
@@ -0,0 +1,106 @@
+package de.dragonrex.serverdashboard.database.metrics;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.pool.HikariPool;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Resizes the pool from observed acquire times: grows by a quarter when the p95 wait over the last
+// interval exceeds the target, shrinks by one after three quiet intervals with spare connections.
+// Hikari reads maximumPoolSize and minimumIdle from its config at runtime; shrinking takes effect as
+// idle connections retire.
+public class AdaptivePoolSizer {
+    private static final Logger LOGGER = Logger.getLogger(AdaptivePoolSizer.class.getName());
+    private static final int QUIET_INTERVALS_BEFORE_SHRINK = 3;
+
+    private final HikariPool pool;
+    private final HikariConfig config;
+    private final PoolMetrics metrics;
+    private final Settings settings;
+    private final ScheduledExecutorService scheduler;
+
+    private int quietIntervals;
+    private volatile long lastWaitP95Micros;
+    private final AtomicLong grows = new AtomicLong();
+    private final AtomicLong shrinks = new AtomicLong();
+
+    public AdaptivePoolSizer(HikariPool pool, HikariConfig config, PoolMetrics metrics, Settings settings) {
+        this.pool = pool;
+        this.config = config;
+        this.metrics = metrics;
+        this.settings = settings;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(this::adjust, this.settings.intervalMillis(), this.settings.intervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("currentMaxSize", this.config.getMaximumPoolSize());
+        stats.put("minSize", this.settings.minSize());
+        stats.put("maxSize", this.settings.maxSize());
+        stats.put("targetWaitMillis", this.settings.targetWaitMillis());
+        stats.put("lastWaitP95Micros", this.lastWaitP95Micros);
+        stats.put("grows", this.grows.get());
+        stats.put("shrinks", this.shrinks.get());
+        return stats;
+    }
+
+    private void adjust() {
+        try {
+            LatencyHistogram window = this.metrics.takeAcquireWindow();
+            long waitP95Micros = window.getValueAtPercentile(95);
+            this.lastWaitP95Micros = waitP95Micros;
+
+            int current = this.config.getMaximumPoolSize();
+            boolean waiting = waitP95Micros > TimeUnit.MILLISECONDS.toMicros(this.settings.targetWaitMillis())
+                    || this.pool.getThreadsAwaitingConnection() > 0;
+
+            if (waiting && current < this.settings.maxSize()) {
+                resize(Math.min(this.settings.maxSize(), current + Math.max(1, current / 4)));
+                this.grows.incrementAndGet();
+                this.quietIntervals = 0;
+                return;
+            }
+
+            boolean spare = !waiting && this.pool.getActiveConnections() < current / 2;
+            this.quietIntervals = spare ? this.quietIntervals + 1 : 0;
+            if (this.quietIntervals >= QUIET_INTERVALS_BEFORE_SHRINK && current > this.settings.minSize()) {
+                resize(current - 1);
+                this.shrinks.incrementAndGet();
+                this.quietIntervals = 0;
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Anpassung der Poolgröße fehlgeschlagen", e);
+        }
+    }
+
+    private void resize(int size) {
+        int previous = this.config.getMaximumPoolSize();
+        if (this.config.getMinimumIdle() > size) {
+            this.config.setMinimumIdle(size);
+        }
+        this.config.setMaximumPoolSize(size);
+        LOGGER.info("Verbindungspool angepasst: " + previous + " -> " + size + " (p95 Wartezeit " + this.lastWaitP95Micros + " µs)");
+    }
+
+    public record Settings(int minSize, int maxSize, long intervalMillis, long targetWaitMillis) {
+    }
+}
@@ -0,0 +1,97 @@
+package de.dragonrex.serverdashboard.database.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear buckets in the style of HdrHistogram: 32 linear sub-buckets per power of two keep the
+// relative error around 3%. Recording is a few atomic increments and never locks; reads are approximate
+// while recording continues, which is fine for monitoring.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, (1L << (MAX_EXPONENT + 1)) - 1));
+        this.counts.incrementAndGet(bucketIndex(clamped));
+        this.count.increment();
+        this.sum.add(clamped);
+        if (clamped > this.max.get()) {
+            this.max.accumulateAndGet(clamped, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public double getMean() {
+        long total = this.count.sum();
+        return total == 0 ? 0.0 : (double) this.sum.sum() / total;
+    }
+
+    // Upper bound of the bucket holding the requested percentile (0-100).
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += this.counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", getCount());
+        summary.put("mean", Math.round(getMean() * 100.0) / 100.0);
+        summary.put("p50", getValueAtPercentile(50));
+        summary.put("p90", getValueAtPercentile(90));
+        summary.put("p99", getValueAtPercentile(99));
+        summary.put("p999", getValueAtPercentile(99.9));
+        summary.put("max", getMax());
+        return summary;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + subBucket * width + width - 1;
+    }
+}
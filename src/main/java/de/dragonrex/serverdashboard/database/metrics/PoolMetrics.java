@@ -0,0 +1,77 @@
+package de.dragonrex.serverdashboard.database.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Receives Hikari's per-connection callbacks. Acquire times are kept in microseconds, usage and
+// creation times in milliseconds. The window histogram is swapped out by the adaptive sizer.
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final LatencyHistogram acquireMicros = new LatencyHistogram();
+    private final LatencyHistogram usageMillis = new LatencyHistogram();
+    private final LatencyHistogram creationMillis = new LatencyHistogram();
+    private final AtomicReference<LatencyHistogram> acquireWindow = new AtomicReference<>(new LatencyHistogram());
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                creationMillis.record(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos);
+                acquireMicros.record(micros);
+                acquireWindow.get().record(micros);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageMillis.record(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    // Acquire times recorded since the previous call.
+    public LatencyHistogram takeAcquireWindow() {
+        return this.acquireWindow.getAndSet(new LatencyHistogram());
+    }
+
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        PoolStats pool = this.poolStats;
+        if (pool != null) {
+            stats.put("totalConnections", pool.getTotalConnections());
+            stats.put("activeConnections", pool.getActiveConnections());
+            stats.put("idleConnections", pool.getIdleConnections());
+            stats.put("pendingThreads", pool.getPendingThreads());
+            stats.put("maxConnections", pool.getMaxConnections());
+            stats.put("minConnections", pool.getMinConnections());
+        }
+        stats.put("connectionTimeouts", getTimeouts());
+        stats.put("acquireMicros", this.acquireMicros.getSummary());
+        stats.put("usageMillis", this.usageMillis.getSummary());
+        stats.put("creationMillis", this.creationMillis.getSummary());
+        return stats;
+    }
+}
@@ -0,0 +1,216 @@
+package de.dragonrex.serverdashboard.database.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+// Times every processor operation into a histogram per normalized statement (SQL) or
+// collection.operation (Mongo). Operations over the slow threshold are logged with redacted
+// arguments; for SQL, the plan is captured in the background at most once per statement and interval.
+public class QueryMetrics {
+    private static final Logger LOGGER = Logger.getLogger(QueryMetrics.class.getName());
+    private static final String OVERFLOW_KEY = "<other>";
+    private static final int MAX_KEY_LENGTH = 300;
+    private static final int SLOW_QUERY_HISTORY = 50;
+    private static final long EXPLAIN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![A-Za-z_0-9])-?\\d+(?:\\.\\d+)?(?![A-Za-z_0-9])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(?:SELECT|WITH|INSERT|UPDATE|DELETE)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final long slowThresholdNanos;
+    private final int maxStatements;
+    private final Explainer explainer;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+    private final Map<String, QueryPlan> plans = new ConcurrentHashMap<>();
+    private final LongAdder slowQueryCount = new LongAdder();
+
+    // explainer may be null when the backend has no EXPLAIN or plan capture is turned off.
+    public QueryMetrics(long slowThresholdMillis, int maxStatements, Explainer explainer) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.maxStatements = Math.max(1, maxStatements);
+        this.explainer = explainer;
+    }
+
+    public <T> T timeSql(String sql, Object[] args, Supplier<T> operation) {
+        return measure(normalize(sql), sql, args, () -> redact(args), operation);
+    }
+
+    // Batches get their own entry so their much larger latencies do not skew the single statement.
+    public <T> T timeBatch(String sql, List<Object[]> batchArgs, Supplier<T> operation) {
+        Object[] firstArgs = batchArgs.isEmpty() ? new Object[0] : batchArgs.get(0);
+        return measure(normalize(sql) + " [batch]", sql, firstArgs,
+                () -> "<" + batchArgs.size() + " rows> " + redact(firstArgs), operation);
+    }
+
+    // For backends without SQL; detail is only evaluated for slow operations.
+    public <T> T time(String key, Supplier<String> detail, Supplier<T> operation) {
+        return measure(key, null, null, detail, operation);
+    }
+
+    // Statements sorted by total time spent, most expensive first.
+    public Map<String, Object> getStats(int limit) {
+        List<Map.Entry<String, StatementStats>> entries = new ArrayList<>(this.statements.entrySet());
+        entries.sort(Comparator.comparingDouble((Map.Entry<String, StatementStats> entry) -> entry.getValue().totalMicros()).reversed());
+
+        List<Map<String, Object>> statementStats = new ArrayList<>();
+        for (Map.Entry<String, StatementStats> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("statement", entry.getKey());
+            stats.put("micros", entry.getValue().micros().getSummary());
+            stats.put("errors", entry.getValue().errors().sum());
+            QueryPlan plan = this.plans.get(entry.getKey());
+            if (plan != null) {
+                stats.put("plan", plan.plan());
+            }
+            statementStats.add(stats);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowThresholdMillis", TimeUnit.NANOSECONDS.toMillis(this.slowThresholdNanos));
+        result.put("trackedStatements", this.statements.size());
+        result.put("slowQueries", this.slowQueryCount.sum());
+        result.put("statements", statementStats);
+        synchronized (this.slowQueries) {
+            result.put("recentSlowQueries", new ArrayList<>(this.slowQueries));
+        }
+        return result;
+    }
+
+    // sql is null for operations that cannot be explained.
+    private <T> T measure(String key, String sql, Object[] args, Supplier<String> detail, Supplier<T> operation) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = operation.get();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            record(key, elapsed, failed);
+            if (elapsed >= this.slowThresholdNanos) {
+                onSlowQuery(key, elapsed, detail);
+                capturePlan(key, sql, args);
+            }
+        }
+    }
+
+    private void record(String key, long elapsedNanos, boolean failed) {
+        StatementStats stats = this.statements.get(key);
+        if (stats == null) {
+            String statKey = this.statements.size() < this.maxStatements ? key : OVERFLOW_KEY;
+            stats = this.statements.computeIfAbsent(statKey, k -> new StatementStats(new LatencyHistogram(), new LongAdder()));
+        }
+        stats.micros().record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (failed) {
+            stats.errors().increment();
+        }
+    }
+
+    private void onSlowQuery(String key, long elapsedNanos, Supplier<String> detail) {
+        this.slowQueryCount.increment();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        String arguments = detail.get();
+        LOGGER.warning("Langsame Abfrage (" + elapsedMillis + " ms): " + key + " " + arguments);
+
+        synchronized (this.slowQueries) {
+            this.slowQueries.addFirst(new SlowQuery(System.currentTimeMillis(), key, arguments, elapsedMillis));
+            if (this.slowQueries.size() > SLOW_QUERY_HISTORY) {
+                this.slowQueries.removeLast();
+            }
+        }
+    }
+
+    // Runs on a virtual thread so the caller that was already slow is not delayed further.
+    private void capturePlan(String key, String sql, Object[] args) {
+        if (this.explainer == null || sql == null || !EXPLAINABLE.matcher(sql).find()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        QueryPlan previous = this.plans.get(key);
+        if (previous != null && now - previous.capturedAt() < EXPLAIN_INTERVAL_MILLIS) {
+            return;
+        }
+        // Reserve the slot first so concurrent slow executions do not all run EXPLAIN.
+        QueryPlan reserved = new QueryPlan(now, previous != null ? previous.plan() : "");
+        if (previous == null ? this.plans.putIfAbsent(key, reserved) != null : !this.plans.replace(key, previous, reserved)) {
+            return;
+        }
+
+        Object[] explainArgs = args.clone();
+        Thread.startVirtualThread(() -> {
+            try {
+                String plan = redactPlan(this.explainer.explain(sql, explainArgs), explainArgs);
+                this.plans.put(key, new QueryPlan(now, plan));
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "EXPLAIN fehlgeschlagen für: " + key, e);
+            }
+        });
+    }
+
+    static String normalize(String sql) {
+        String normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) + "..." : normalized;
+    }
+
+    // Only the shape of string arguments is logged; they may hold passwords or e-mail addresses.
+    static String redact(Object[] args) {
+        List<String> redacted = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            if (arg == null || arg instanceof Number || arg instanceof Boolean) {
+                redacted.add(String.valueOf(arg));
+            } else if (arg instanceof CharSequence text) {
+                redacted.add("<string:" + text.length() + ">");
+            } else if (arg instanceof byte[] bytes) {
+                redacted.add("<bytes:" + bytes.length + ">");
+            } else {
+                redacted.add("<" + arg.getClass().getSimpleName() + ">");
+            }
+        }
+        return redacted.toString();
+    }
+
+    // Some planners print bound values inside filter conditions.
+    private static String redactPlan(String plan, Object[] args) {
+        String redacted = plan;
+        for (Object arg : args) {
+            if (arg instanceof CharSequence text && !text.isEmpty()) {
+                redacted = redacted.replace(text.toString(), "***");
+            }
+        }
+        return redacted;
+    }
+
+    @FunctionalInterface
+    public interface Explainer {
+        String explain(String sql, Object[] args) throws Exception;
+    }
+
+    public record SlowQuery(long timestamp, String statement, String arguments, long elapsedMillis) {
+    }
+
+    private record QueryPlan(long capturedAt, String plan) {
+    }
+
+    private record StatementStats(LatencyHistogram micros, LongAdder errors) {
+        double totalMicros() {
+            return this.micros.getMean() * this.micros.getCount();
+        }
+    }
+}
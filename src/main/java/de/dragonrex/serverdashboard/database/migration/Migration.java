@@ -0,0 +1,90 @@
+package de.dragonrex.serverdashboard.database.migration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+public record Migration(int version, String name, String script, String checksum) {
+    private static final String INDEX_RESOURCE = "db/migration/index.txt";
+
+    // Names look like V3__add_audit_log; the number before the double underscore is the version.
+    public static List<Migration> load(MigrationDialect dialect) {
+        List<Migration> migrations = new ArrayList<>();
+        int previousVersion = 0;
+
+        for (String line : readResource(INDEX_RESOURCE).split("\n")) {
+            String name = line.strip();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+
+            int separator = name.indexOf("__");
+            if (!name.startsWith("V") || separator < 2) {
+                throw new IllegalStateException("Invalid migration name: " + name);
+            }
+            int version = Integer.parseInt(name.substring(1, separator));
+            if (version <= previousVersion) {
+                throw new IllegalStateException("Migration versions must be ascending: " + name);
+            }
+            previousVersion = version;
+
+            String script = readResource(dialect.resourcePath(name));
+            migrations.add(new Migration(version, name, script, checksum(script)));
+        }
+        return migrations;
+    }
+
+    // Statements are separated by a semicolon at the end of a line; "--" lines are comments.
+    public List<String> statements() {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : this.script.split("\n")) {
+            if (line.strip().startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (line.strip().endsWith(";")) {
+                addStatement(statements, current);
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().strip();
+        if (statement.endsWith(";")) {
+            statement = statement.substring(0, statement.length() - 1).strip();
+        }
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+
+    private static String readResource(String path) {
+        try (InputStream stream = Migration.class.getClassLoader().getResourceAsStream(path)) {
+            if (stream == null) {
+                throw new IllegalStateException("Migration resource not found: " + path);
+            }
+            // Line endings are normalized so a checkout on Windows keeps the same checksum.
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read migration resource: " + path, e);
+        }
+    }
+
+    private static String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
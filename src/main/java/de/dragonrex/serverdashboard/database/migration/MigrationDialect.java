@@ -0,0 +1,44 @@
+package de.dragonrex.serverdashboard.database.migration;
+
+import de.dragonrex.serverdashboard.database.processor.IProcessor;
+import de.dragonrex.serverdashboard.database.processor.MariaProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoProcessor;
+import de.dragonrex.serverdashboard.database.processor.MySQLProcessor;
+import de.dragonrex.serverdashboard.database.processor.PostgresProcessor;
+import de.dragonrex.serverdashboard.database.processor.SQLiteProcessor;
+
+public enum MigrationDialect {
+    SQLITE("sqlite", ".sql"),
+    MYSQL("mysql", ".sql"),
+    POSTGRES("postgres", ".sql"),
+    MONGODB("mongo", ".json");
+
+    private final String directory;
+    private final String extension;
+
+    MigrationDialect(String directory, String extension) {
+        this.directory = directory;
+        this.extension = extension;
+    }
+
+    public String resourcePath(String name) {
+        return "db/migration/" + this.directory + "/" + name + this.extension;
+    }
+
+    // MariaDB shares the MySQL scripts.
+    public static MigrationDialect of(IProcessor processor) {
+        if (processor.unwrap(MongoProcessor.class).isPresent()) {
+            return MONGODB;
+        }
+        if (processor.unwrap(SQLiteProcessor.class).isPresent()) {
+            return SQLITE;
+        }
+        if (processor.unwrap(PostgresProcessor.class).isPresent()) {
+            return POSTGRES;
+        }
+        if (processor.unwrap(MySQLProcessor.class).isPresent() || processor.unwrap(MariaProcessor.class).isPresent()) {
+            return MYSQL;
+        }
+        throw new IllegalArgumentException("No migrations for processor: " + processor.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,159 @@
+package de.dragonrex.serverdashboard.database.migration;
+
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.processor.IProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoQuery;
+import org.bson.Document;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Applies the versioned scripts under db/migration and records each one in schema_version.
+// An up-to-date schema costs a single read of the version table at startup.
+public class SchemaMigrator {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    private static final String VERSION_TABLE = "schema_version";
+    private static final RowMapper<AppliedMigration> APPLIED_MAPPER =
+            row -> new AppliedMigration(row.getInt("version"), row.getString("checksum"));
+
+    private final IProcessor processor;
+    private final MigrationDialect dialect;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(IProcessor processor) {
+        this.processor = processor;
+        this.dialect = MigrationDialect.of(processor);
+        this.migrations = Migration.load(this.dialect);
+    }
+
+    // Returns the number of migrations applied. With autoMigrate off, pending migrations are only reported.
+    public int migrate(boolean autoMigrate) {
+        Map<Integer, String> loaded = loadApplied();
+        if (loaded == null) {
+            if (!autoMigrate) {
+                LOGGER.warning("Keine Schema-Versionstabelle gefunden und auto_migrate ist deaktiviert");
+                return 0;
+            }
+            createVersionTable();
+        }
+        Map<Integer, String> applied = loaded == null ? Map.of() : loaded;
+
+        verifyChecksums(applied);
+
+        List<Migration> pending = this.migrations.stream()
+                .filter(migration -> !applied.containsKey(migration.version()))
+                .toList();
+        if (pending.isEmpty()) {
+            LOGGER.info("Datenbankschema ist aktuell (Version " + getLatestVersion() + ")");
+            return 0;
+        }
+        if (!autoMigrate) {
+            LOGGER.warning(pending.size() + " ausstehende Migration(en), auto_migrate ist deaktiviert");
+            return 0;
+        }
+
+        for (Migration migration : pending) {
+            long start = System.currentTimeMillis();
+            apply(migration, start);
+            LOGGER.info("Migration " + migration.name() + " angewendet (" + (System.currentTimeMillis() - start) + " ms)");
+        }
+        return pending.size();
+    }
+
+    public int getLatestVersion() {
+        return this.migrations.isEmpty() ? 0 : this.migrations.get(this.migrations.size() - 1).version();
+    }
+
+    // A changed script that already ran would silently diverge from existing databases, so startup stops.
+    private void verifyChecksums(Map<Integer, String> applied) {
+        for (Migration migration : this.migrations) {
+            String checksum = applied.get(migration.version());
+            if (checksum != null && !checksum.equals(migration.checksum())) {
+                throw new IllegalStateException("Checksum mismatch for applied migration " + migration.name()
+                        + "; add a new migration instead of editing an applied one");
+            }
+        }
+
+        int latest = getLatestVersion();
+        if (applied.keySet().stream().anyMatch(version -> version > latest)) {
+            LOGGER.warning("Datenbankschema ist neuer als diese Anwendungsversion (bekannt bis Version " + latest + ")");
+        }
+    }
+
+    // Returns null when the SQL version table does not exist yet; Mongo collections need no creation.
+    private Map<Integer, String> loadApplied() {
+        List<AppliedMigration> rows;
+        if (this.dialect == MigrationDialect.MONGODB) {
+            rows = mongoProcessor().find(MongoQuery.of(VERSION_TABLE), APPLIED_MAPPER);
+        } else {
+            try {
+                rows = this.processor.query("SELECT version, checksum FROM " + VERSION_TABLE, APPLIED_MAPPER);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        Map<Integer, String> applied = new HashMap<>();
+        for (AppliedMigration row : rows) {
+            applied.put(row.version(), row.checksum());
+        }
+        return applied;
+    }
+
+    private void createVersionTable() {
+        this.processor.update("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    name VARCHAR(200) NOT NULL,
+                    checksum VARCHAR(64) NOT NULL,
+                    installed_at BIGINT NOT NULL,
+                    execution_millis BIGINT NOT NULL
+                )
+                """);
+    }
+
+    // SQL migrations run in one transaction together with their version row. MySQL commits DDL
+    // implicitly, which is why every script must be safe to run again after a partial failure.
+    private void apply(Migration migration, long start) {
+        if (this.dialect == MigrationDialect.MONGODB) {
+            applyMongo(migration, start);
+            return;
+        }
+
+        this.processor.inTransaction(tx -> {
+            for (String statement : migration.statements()) {
+                tx.update(statement);
+            }
+            tx.update("INSERT INTO " + VERSION_TABLE + " (version, name, checksum, installed_at, execution_millis) VALUES (?, ?, ?, ?, ?)",
+                    migration.version(), migration.name(), migration.checksum(),
+                    System.currentTimeMillis(), System.currentTimeMillis() - start);
+            return null;
+        });
+    }
+
+    // Mongo scripts are JSON documents listing the indexes to create; createIndex is idempotent.
+    private void applyMongo(Migration migration, long start) {
+        MongoProcessor mongoProcessor = mongoProcessor();
+        Document script = Document.parse(migration.script());
+        for (Document index : script.getList("indexes", Document.class, List.of())) {
+            mongoProcessor.createIndex(index.getString("collection"), index.get("keys", Document.class),
+                    index.getBoolean("unique", false));
+        }
+
+        mongoProcessor.insertOne(VERSION_TABLE, new Document("version", migration.version())
+                .append("name", migration.name())
+                .append("checksum", migration.checksum())
+                .append("installedAt", System.currentTimeMillis())
+                .append("executionMillis", System.currentTimeMillis() - start));
+    }
+
+    private MongoProcessor mongoProcessor() {
+        return this.processor.unwrap(MongoProcessor.class).orElseThrow();
+    }
+
+    private record AppliedMigration(int version, String checksum) {
+    }
+}
@@ -1,26 +1,67 @@
 package de.dragonrex.serverdashboard.database.processor;
 
+import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.pool.HikariPool;
 import de.dragonrex.serverdashboard.database.Database;
+import de.dragonrex.serverdashboard.database.DatabaseCursor;
+import de.dragonrex.serverdashboard.database.DatabaseExecutor;
 import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.ResultSetCursor;
+import de.dragonrex.serverdashboard.database.ResultSetRow;
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.SQLTransaction;
 import de.dragonrex.serverdashboard.database.SQLUtility;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
+import de.dragonrex.serverdashboard.database.metrics.AdaptivePoolSizer;
+import de.dragonrex.serverdashboard.database.metrics.PoolMetrics;
+import de.dragonrex.serverdashboard.database.metrics.QueryMetrics;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractSQLProcessor implements IProcessor {
+    protected static final int STREAM_FETCH_SIZE = 500;
+    protected static final String TRANSACTION_KEY = "<transaction>";
+
     protected final Database database;
     protected HikariPool pool;
+    protected DatabaseExecutor executor;
+    protected final PoolMetrics poolMetrics = new PoolMetrics();
+    protected final QueryMetrics queryMetrics;
+    private AdaptivePoolSizer poolSizer;
 
     public AbstractSQLProcessor(Database database) {
         this.database = database;
+        this.queryMetrics = new QueryMetrics(database.getSlowQueryThresholdMillis(), database.getQueryMetricsMaxStatements(),
+                database.isSlowQueryExplain() ? this::explain : null);
     }
 
     @Override
     public void connect() {
         try {
-            this.pool = new HikariPool(this.database.getConfig());
+            HikariConfig config = this.database.getConfig();
+            AdaptivePoolSizer.Settings adaptive = this.database.getAdaptivePoolSizing();
+            if (adaptive != null) {
+                config.setMaximumPoolSize(Math.max(adaptive.minSize(), Math.min(adaptive.maxSize(), config.getMaximumPoolSize())));
+                config.setMinimumIdle(Math.min(config.getMinimumIdle(), config.getMaximumPoolSize()));
+            }
+            config.setMetricsTrackerFactory(this.poolMetrics);
+
+            this.pool = new HikariPool(config);
+            // With adaptive sizing the executor is sized for the largest pool it may grow to.
+            this.executor = DatabaseExecutor.forPool(getDatabaseType(), this.database.getAsyncMaxConcurrency(),
+                    adaptive != null ? adaptive.maxSize() : config.getMaximumPoolSize());
+            if (adaptive != null) {
+                this.poolSizer = new AdaptivePoolSizer(this.pool, config, this.poolMetrics, adaptive);
+                this.poolSizer.start();
+            }
             try (Connection connection = this.pool.getConnection();
                  PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
                 statement.setQueryTimeout(15);
@@ -33,49 +74,177 @@ public abstract class AbstractSQLProcessor implements IProcessor {
 
     @Override
     public void disconnect() {
-        try {
-            if (this.pool != null && !this.pool.getConnection().isClosed()) {
-                try {
-                    this.pool.shutdown();
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to shutdown connection pool for " + getDatabaseType(), e);
-                }
+        if (this.poolSizer != null) {
+            this.poolSizer.shutdown();
+            this.poolSizer = null;
+        }
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
+        if (this.pool != null) {
+            HikariPool closing = this.pool;
+            this.pool = null;
+            try {
+                closing.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while shutting down connection pool for " + getDatabaseType(), e);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
         }
     }
 
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(this.poolMetrics.getStats());
+        HikariConfig config = this.database.getConfig();
+        stats.put("maximumPoolSize", config.getMaximumPoolSize());
+        stats.put("minimumIdle", config.getMinimumIdle());
+        stats.put("connectionTimeoutMillis", config.getConnectionTimeout());
+        stats.put("leakDetectionThresholdMillis", config.getLeakDetectionThreshold());
+        if (this.poolSizer != null) {
+            stats.put("adaptive", this.poolSizer.getStats());
+        }
+        return stats;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return this.queryMetrics;
+    }
+
     @Override
     public DatabaseResult query(String query, Object... args) {
-        try (Connection connection = this.pool.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+        return this.queryMetrics.timeSql(query, args, () -> {
+            try (Connection connection = this.pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
 
-            for (int i = 0; i < args.length; i++) {
-                statement.setObject(i + 1, args[i]);
+                return SQLUtility.getDatabaseResult(statement);
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to execute query on " + getDatabaseType() + ": " + query, e);
             }
+        });
+    }
 
-            return SQLUtility.getDatabaseResult(statement);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to execute query on " + getDatabaseType() + ": " + query, e);
-        }
+    // Maps rows straight off the ResultSet without the intermediate DatabaseResult rows.
+    @Override
+    public <T> List<T> query(String query, RowMapper<T> mapper, Object... args) {
+        return this.queryMetrics.timeSql(query, args, () -> {
+            try (Connection connection = this.pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+
+                List<T> results = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    ResultSetRow row = new ResultSetRow(resultSet);
+                    while (resultSet.next()) {
+                        results.add(mapper.map(row));
+                    }
+                }
+                return results;
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to execute query on " + getDatabaseType() + ": " + query, e);
+            }
+        });
+    }
+
+    // The connection stays checked out of the pool until the cursor is closed.
+    @Override
+    public DatabaseCursor openCursor(String query, Object... args) {
+        return this.queryMetrics.timeSql(query, args, () -> {
+            Connection connection = null;
+            PreparedStatement statement = null;
+            try {
+                connection = this.pool.getConnection();
+                boolean autoCommit = connection.getAutoCommit();
+                statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                configureStreaming(connection, statement);
+
+                for (int i = 0; i < args.length; i++) {
+                    statement.setObject(i + 1, args[i]);
+                }
+
+                ResultSet resultSet = statement.executeQuery();
+                return new ResultSetCursor(connection, statement, resultSet, autoCommit && !connection.getAutoCommit());
+            } catch (SQLException e) {
+                closeQuietly(statement);
+                closeQuietly(connection);
+                throw new RuntimeException("Failed to open cursor on " + getDatabaseType() + ": " + query, e);
+            }
+        });
     }
 
     @Override
     public DatabaseResult update(String query, Object... args) {
-        try (Connection connection = this.pool.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+        return this.queryMetrics.timeSql(query, args, () -> {
+            boolean insert = SQLUtility.isInsert(query);
+            try (Connection connection = this.pool.getConnection();
+                 PreparedStatement statement = insert
+                         ? connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+                         : connection.prepareStatement(query)) {
 
-            for (int i = 0; i < args.length; i++) {
-                statement.setObject(i + 1, args[i]);
+                SQLUtility.bind(statement, args);
+                return SQLUtility.executeUpdate(statement, insert);
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to execute update on " + getDatabaseType() + ": " + query, e);
             }
+        });
+    }
 
-            int affectedRows = statement.executeUpdate();
+    @Override
+    public <T> T inTransaction(TransactionCallback<T> callback) {
+        return this.queryMetrics.time(TRANSACTION_KEY, () -> "", () -> {
+            try (Connection connection = this.pool.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
 
-            return createUpdateResult(affectedRows);
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to execute update on " + getDatabaseType() + ": " + query, e);
-        }
+                // A failed commit must be rolled back too; restoring autocommit would otherwise commit partial work.
+                try (SQLTransaction transaction = new SQLTransaction(connection)) {
+                    T result = callback.execute(transaction);
+                    connection.commit();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    rollbackQuietly(connection, e);
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to execute transaction on " + getDatabaseType(), e);
+            }
+        });
+    }
+
+    @Override
+    public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+        return this.queryMetrics.timeBatch(query, batchArgs, () -> {
+            try (Connection connection = this.pool.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    DatabaseResult result = SQLUtility.executeBatch(statement, batchArgs);
+                    connection.commit();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    rollbackQuietly(connection, e);
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to execute batch update on " + getDatabaseType() + ": " + query, e);
+            }
+        });
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return this.executor;
     }
 
     @Override
@@ -87,11 +256,58 @@ public abstract class AbstractSQLProcessor implements IProcessor {
         }
     }
 
-    private DatabaseResult createUpdateResult(int affectedRows) {
-        DatabaseResult.Row row = new DatabaseResult.Row();
-        row.put("affectedRows", affectedRows);
-        return new DatabaseResult(java.util.List.of(row));
+    // Only plans the statement; none of the supported databases executes it without ANALYZE.
+    protected String explain(String query, Object[] args) throws SQLException {
+        if (this.pool == null) {
+            return "";
+        }
+        try (Connection connection = this.pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(getExplainPrefix() + query)) {
+
+            SQLUtility.bind(statement, args);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columns = resultSet.getMetaData().getColumnCount();
+                while (resultSet.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        plan.append(i > 1 ? " | " : "").append(resultSet.getString(i));
+                    }
+                    plan.append('\n');
+                }
+            }
+            return plan.toString().strip();
+        }
+    }
+
+    protected String getExplainPrefix() {
+        return "EXPLAIN ";
+    }
+
+    // Drivers differ in how they are told to stream instead of buffering the whole result.
+    protected void configureStreaming(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(STREAM_FETCH_SIZE);
+    }
+
+    // Keeps the original failure as the one reported; a failed rollback is attached to it.
+    private void rollbackQuietly(Connection connection, Exception failure) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
     }
 
+    private void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    public abstract SQLDialect getDialect();
+
     protected abstract String getDatabaseType();
 }
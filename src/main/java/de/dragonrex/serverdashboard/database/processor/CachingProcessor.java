@@ -0,0 +1,311 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import de.dragonrex.serverdashboard.database.DatabaseCursor;
+import de.dragonrex.serverdashboard.database.DatabaseExecutor;
+import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.Transaction;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Read-through cache in front of any processor. Entries are invalidated per table or collection on writes;
+// queries whose tables cannot be determined are never cached, and writes to unknown tables clear everything.
+public class CachingProcessor implements IProcessor {
+    private final IProcessor delegate;
+    private final boolean mongo;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+    // Bumped on every write; a read only stores its result if none of its tables changed meanwhile.
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong uncacheable = new AtomicLong();
+
+    public CachingProcessor(IProcessor delegate, int maxEntries, long ttlMillis) {
+        this.delegate = delegate;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Optional<MongoProcessor> mongoProcessor = delegate.unwrap(MongoProcessor.class);
+        this.mongo = mongoProcessor.isPresent();
+        mongoProcessor.ifPresent(processor -> processor.addWriteListener(this::invalidate));
+    }
+
+    @Override
+    public void connect() {
+        this.delegate.connect();
+    }
+
+    @Override
+    public void disconnect() {
+        clear();
+        this.delegate.disconnect();
+    }
+
+    @Override
+    public DatabaseResult query(String query, Object... args) {
+        CacheKey key = new CacheKey(QueryTables.normalize(query), Arrays.asList(args.clone()), null);
+        Set<String> tables = readTables(query);
+        DatabaseResult cached = lookup(key, DatabaseResult.class);
+        if (cached != null) {
+            return cached.copy();
+        }
+
+        long stamp = stamp(tables);
+        DatabaseResult result = this.delegate.query(query, args);
+        store(key, tables, stamp, result.copy());
+        return result;
+    }
+
+    // Mapped results are cached per mapper instance, so mappers should be shared constants.
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(String query, RowMapper<T> mapper, Object... args) {
+        CacheKey key = new CacheKey(QueryTables.normalize(query), Arrays.asList(args.clone()), mapper);
+        Set<String> tables = readTables(query);
+        List<T> cached = lookup(key, List.class);
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
+
+        long stamp = stamp(tables);
+        List<T> result = this.delegate.query(query, mapper, args);
+        store(key, tables, stamp, Collections.unmodifiableList(new ArrayList<>(result)));
+        return result;
+    }
+
+    @Override
+    public DatabaseCursor openCursor(String query, Object... args) {
+        return this.delegate.openCursor(query, args);
+    }
+
+    @Override
+    public DatabaseResult update(String query, Object... args) {
+        try {
+            return this.delegate.update(query, args);
+        } finally {
+            invalidate(writeTables(query));
+        }
+    }
+
+    @Override
+    public CompletableFuture<DatabaseResult> updateAsync(String query, Object... args) {
+        return this.delegate.updateAsync(query, args).whenComplete((result, error) -> invalidate(writeTables(query)));
+    }
+
+    @Override
+    public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+        try {
+            return this.delegate.batchUpdate(query, batchArgs);
+        } finally {
+            invalidate(writeTables(query));
+        }
+    }
+
+    @Override
+    public <T> T inTransaction(TransactionCallback<T> callback) {
+        Set<String> written = ConcurrentHashMap.newKeySet();
+        try {
+            return this.delegate.inTransaction(tx -> callback.execute(new TrackingTransaction(tx, written)));
+        } finally {
+            invalidate(written);
+        }
+    }
+
+    @Override
+    public Connection getConnection() {
+        return this.delegate.getConnection();
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return this.delegate.getExecutor();
+    }
+
+    @Override
+    public <T> T guard(Supplier<T> operation) {
+        return this.delegate.guard(operation);
+    }
+
+    @Override
+    public <T> T guardWrite(Supplier<T> operation) {
+        return this.delegate.guardWrite(operation);
+    }
+
+    @Override
+    public <T> Optional<T> unwrap(Class<T> type) {
+        return type.isInstance(this) ? Optional.of(type.cast(this)) : this.delegate.unwrap(type);
+    }
+
+    public void invalidate(String table) {
+        this.tableVersions.computeIfAbsent(table.toLowerCase(Locale.ROOT), t -> new AtomicLong()).incrementAndGet();
+        synchronized (this.entries) {
+            Iterator<CacheEntry> iterator = this.entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().tables().contains(table.toLowerCase(Locale.ROOT))) {
+                    iterator.remove();
+                    this.invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        this.globalVersion.incrementAndGet();
+        synchronized (this.entries) {
+            this.invalidations.addAndGet(this.entries.size());
+            this.entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this.entries) {
+            stats.put("entries", this.entries.size());
+        }
+        stats.put("maxEntries", this.maxEntries);
+        stats.put("ttlMillis", this.ttlMillis);
+        long hitCount = this.hits.get();
+        long missCount = this.misses.get();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", this.evictions.get());
+        stats.put("expirations", this.expirations.get());
+        stats.put("invalidations", this.invalidations.get());
+        stats.put("uncacheable", this.uncacheable.get());
+        return stats;
+    }
+
+    private <T> T lookup(CacheKey key, Class<T> type) {
+        synchronized (this.entries) {
+            CacheEntry entry = this.entries.get(key);
+            if (entry == null) {
+                this.misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                this.entries.remove(key);
+                this.expirations.incrementAndGet();
+                this.misses.incrementAndGet();
+                return null;
+            }
+            this.hits.incrementAndGet();
+            return type.cast(entry.value());
+        }
+    }
+
+    private void store(CacheKey key, Set<String> tables, long stamp, Object value) {
+        if (tables.isEmpty()) {
+            this.uncacheable.incrementAndGet();
+            return;
+        }
+
+        synchronized (this.entries) {
+            if (stamp(tables) != stamp) {
+                return;
+            }
+            this.entries.put(key, new CacheEntry(value, System.currentTimeMillis() + this.ttlMillis, tables));
+            while (this.entries.size() > this.maxEntries) {
+                Iterator<CacheKey> eldest = this.entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Versions only ever grow, so the sum changes whenever any of the involved counters does.
+    private long stamp(Set<String> tables) {
+        long stamp = this.globalVersion.get();
+        for (String table : tables) {
+            AtomicLong version = this.tableVersions.get(table);
+            if (version != null) {
+                stamp += version.get();
+            }
+        }
+        return stamp;
+    }
+
+    private void invalidate(Set<String> tables) {
+        if (tables.isEmpty()) {
+            return;
+        }
+        if (tables.contains(QueryTables.ALL)) {
+            clear();
+            return;
+        }
+        for (String table : tables) {
+            invalidate(table);
+        }
+    }
+
+    private Set<String> readTables(String query) {
+        return QueryTables.read(query, this.mongo);
+    }
+
+    private Set<String> writeTables(String query) {
+        return QueryTables.written(query, this.mongo);
+    }
+
+    private record CacheKey(String query, List<Object> args, Object mapper) {
+    }
+
+    private record CacheEntry(Object value, long expiresAt, Set<String> tables) {
+    }
+
+    private final class TrackingTransaction implements Transaction {
+        private final Transaction transaction;
+        private final Set<String> written;
+
+        private TrackingTransaction(Transaction transaction, Set<String> written) {
+            this.transaction = transaction;
+            this.written = written;
+        }
+
+        @Override
+        public DatabaseResult query(String query, Object... args) {
+            return this.transaction.query(query, args);
+        }
+
+        @Override
+        public <T> List<T> query(String query, RowMapper<T> mapper, Object... args) {
+            return this.transaction.query(query, mapper, args);
+        }
+
+        @Override
+        public DatabaseResult update(String query, Object... args) {
+            this.written.addAll(writeTables(query));
+            return this.transaction.update(query, args);
+        }
+
+        @Override
+        public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+            this.written.addAll(writeTables(query));
+            return this.transaction.batchUpdate(query, batchArgs);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Opens after a run of consecutive failures and rejects calls until openMillis have passed. Then a
+// single trial call is let through: success closes the breaker, failure opens it again.
+public class CircuitBreaker {
+    private static final Logger LOGGER = Logger.getLogger(CircuitBreaker.class.getName());
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    private final AtomicLong rejectedCalls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong openings = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openMillis;
+    }
+
+    public boolean tryAcquire() {
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+
+        if (this.state == State.OPEN) {
+            synchronized (this) {
+                if (this.state == State.OPEN && System.currentTimeMillis() - this.openedAt >= this.openMillis) {
+                    this.state = State.HALF_OPEN;
+                }
+            }
+        }
+
+        if (this.state == State.HALF_OPEN && this.trialInFlight.compareAndSet(false, true)) {
+            return true;
+        }
+        this.rejectedCalls.incrementAndGet();
+        return false;
+    }
+
+    public void onSuccess() {
+        this.consecutiveFailures.set(0);
+        if (this.state != State.CLOSED) {
+            synchronized (this) {
+                if (this.state != State.CLOSED) {
+                    this.state = State.CLOSED;
+                    this.trialInFlight.set(false);
+                    LOGGER.info("Datenbank-Circuit-Breaker " + this.name + " geschlossen");
+                }
+            }
+        }
+    }
+
+    public void onFailure() {
+        this.failures.incrementAndGet();
+        if (this.state == State.HALF_OPEN || this.consecutiveFailures.incrementAndGet() >= this.failureThreshold) {
+            open();
+        }
+    }
+
+    public State getState() {
+        return this.state;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", this.state.name());
+        stats.put("consecutiveFailures", this.consecutiveFailures.get());
+        stats.put("failureThreshold", this.failureThreshold);
+        stats.put("openMillis", this.openMillis);
+        stats.put("openedAt", this.openedAt);
+        stats.put("openings", this.openings.get());
+        stats.put("failures", this.failures.get());
+        stats.put("rejectedCalls", this.rejectedCalls.get());
+        return stats;
+    }
+
+    private synchronized void open() {
+        boolean wasOpen = this.state == State.OPEN;
+        this.state = State.OPEN;
+        this.openedAt = System.currentTimeMillis();
+        this.trialInFlight.set(false);
+        if (!wasOpen) {
+            this.openings.incrementAndGet();
+            LOGGER.warning("Datenbank-Circuit-Breaker " + this.name + " geöffnet nach " + this.consecutiveFailures.get()
+                    + " Fehlern; Anfragen werden für " + this.openMillis + " ms abgewiesen");
+        }
+    }
+}
@@ -1,15 +1,74 @@
 package de.dragonrex.serverdashboard.database.processor;
 
+import de.dragonrex.serverdashboard.database.DatabaseCursor;
+import de.dragonrex.serverdashboard.database.DatabaseExecutor;
 import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface IProcessor {
 
     void connect();
     void disconnect();
     DatabaseResult query(String query, Object... args);
+    DatabaseCursor openCursor(String query, Object... args);
     DatabaseResult update(String query, Object... args);
+    DatabaseResult batchUpdate(String query, List<Object[]> batchArgs);
+    <T> T inTransaction(TransactionCallback<T> callback);
     Connection getConnection();
+    DatabaseExecutor getExecutor();
+
+    default CompletableFuture<DatabaseResult> queryAsync(String query, Object... args) {
+        return getExecutor().submit(() -> query(query, args));
+    }
+
+    default <T> CompletableFuture<List<T>> queryAsync(String query, RowMapper<T> mapper, Object... args) {
+        return getExecutor().submit(() -> query(query, mapper, args));
+    }
+
+    default CompletableFuture<DatabaseResult> updateAsync(String query, Object... args) {
+        return getExecutor().submit(() -> update(query, args));
+    }
+
+    default <T> List<T> query(String query, RowMapper<T> mapper, Object... args) {
+        List<T> results = new ArrayList<>();
+        forEachRow(query, row -> results.add(mapper.map(row)), args);
+        return results;
+    }
+
+    // Runs backend work that bypasses this interface, such as typed Mongo calls, under the same
+    // protections a decorator applies to its own operations.
+    default <T> T guard(Supplier<T> operation) {
+        return operation.get();
+    }
+
+    // Same as guard(), with the deadline of a write.
+    default <T> T guardWrite(Supplier<T> operation) {
+        return operation.get();
+    }
+
+    // Looks through decorators such as CachingProcessor to reach a backend-specific processor.
+    default <T> Optional<T> unwrap(Class<T> type) {
+        return type.isInstance(this) ? Optional.of(type.cast(this)) : Optional.empty();
+    }
+
+    default long forEachRow(String query, Consumer<DatabaseCursor> rowHandler, Object... args) {
+        long rows = 0;
+        try (DatabaseCursor cursor = openCursor(query, args)) {
+            while (cursor.next()) {
+                rowHandler.accept(cursor);
+                rows++;
+            }
+        }
+        return rows;
+    }
 
 }
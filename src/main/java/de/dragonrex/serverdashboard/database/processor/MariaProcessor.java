@@ -2,12 +2,27 @@ package de.dragonrex.serverdashboard.database.processor;
 
 import de.dragonrex.serverdashboard.database.Database;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 public class MariaProcessor extends AbstractSQLProcessor {
 
     public MariaProcessor(Database database) {
         super(database);
     }
 
+    // Served by the MySQL Connector/J driver, which only streams with a fetch size of Integer.MIN_VALUE.
+    @Override
+    protected void configureStreaming(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public SQLDialect getDialect() {
+        return SQLDialect.MYSQL;
+    }
+
     @Override
     protected String getDatabaseType() {
         return "MariaDB";
@@ -3,39 +3,94 @@ package de.dragonrex.serverdashboard.database.processor;
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.*;
+import com.mongodb.bulk.BulkWriteInsert;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.InsertOneResult;
 import com.mongodb.client.result.UpdateResult;
 import de.dragonrex.serverdashboard.database.Database;
+import de.dragonrex.serverdashboard.database.DatabaseCursor;
+import de.dragonrex.serverdashboard.database.DatabaseExecutor;
 import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.DocumentCursor;
+import de.dragonrex.serverdashboard.database.DocumentRow;
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.Transaction;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
+import de.dragonrex.serverdashboard.database.metrics.QueryMetrics;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
 import java.sql.Connection;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class MongoProcessor implements IProcessor {
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final DatabaseResult.Schema BATCH_SCHEMA = DatabaseResult.Schema.of("index", "affectedRows", "insertedId", "acknowledged");
+
     protected final Database database;
     protected final String databaseName;
+    private final long serverSelectionTimeoutMillis;
+    private final long connectTimeoutMillis;
+    private final long socketTimeoutMillis;
     protected MongoClient client;
     protected MongoDatabase mongoDatabase;
+    protected DatabaseExecutor executor;
+    private final List<Consumer<String>> writeListeners = new CopyOnWriteArrayList<>();
+    private final QueryMetrics queryMetrics;
 
+    // Driver defaults: 30 s server selection, 10 s connect, no socket read timeout.
     public MongoProcessor(Database database, String databaseName) {
+        this(database, databaseName, 30000, 10000, 0);
+    }
+
+    public MongoProcessor(Database database, String databaseName, long serverSelectionTimeoutMillis,
+                          long connectTimeoutMillis, long socketTimeoutMillis) {
         this.database = database;
         this.databaseName = databaseName;
+        this.serverSelectionTimeoutMillis = serverSelectionTimeoutMillis;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.socketTimeoutMillis = socketTimeoutMillis;
+        // MongoDB has no EXPLAIN statement to run from here, so slow operations are only logged.
+        this.queryMetrics = new QueryMetrics(database.getSlowQueryThresholdMillis(), database.getQueryMetricsMaxStatements(), null);
     }
 
     @Override
     public void connect() {
         try {
+            // Timeouts given in the connection string are applied last and win over the configured ones.
             MongoClientSettings settings = MongoClientSettings.builder()
+                    .applyToClusterSettings(builder -> builder.serverSelectionTimeout(this.serverSelectionTimeoutMillis, TimeUnit.MILLISECONDS))
+                    .applyToSocketSettings(builder -> builder
+                            .connectTimeout((int) this.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                            .readTimeout((int) this.socketTimeoutMillis, TimeUnit.MILLISECONDS))
+                    .applyToConnectionPoolSettings(builder -> builder.maxWaitTime(this.serverSelectionTimeoutMillis, TimeUnit.MILLISECONDS))
                     .applyConnectionString(new ConnectionString(database.getJdbcUrl()))
                     .build();
             this.client = MongoClients.create(settings);
             this.mongoDatabase = this.client.getDatabase(this.databaseName);
+            this.executor = DatabaseExecutor.forPool(getDatabaseType(), this.database.getAsyncMaxConcurrency(),
+                    settings.getConnectionPoolSettings().getMaxSize());
 
             this.mongoDatabase.listCollectionNames().first();
         } catch (Exception e) {
@@ -45,6 +100,9 @@ public class MongoProcessor implements IProcessor {
 
     @Override
     public void disconnect() {
+        if (this.executor != null) {
+            this.executor.shutdown();
+        }
         if (this.client != null) {
             try {
                 this.client.close();
@@ -54,35 +112,198 @@ public class MongoProcessor implements IProcessor {
         }
     }
 
+    // Legacy entry point: "field:value" arguments become string equality filters.
     @Override
     public DatabaseResult query(String query, Object... args) {
+        return find(MongoQuery.of(query, createFilter(args, 0)));
+    }
+
+    @Override
+    public DatabaseCursor openCursor(String query, Object... args) {
+        return openCursor(MongoQuery.of(query, createFilter(args, 0)));
+    }
+
+    public DatabaseResult find(MongoQuery query) {
         try {
-            MongoCollection<Document> collection = this.mongoDatabase.getCollection(query);
-            List<Bson> filters = new ArrayList<>();
+            return this.queryMetrics.time(query.collection() + ".find", () -> describe(query.filter()), () -> {
+                // Documents of one collection usually share their keys, so consecutive rows reuse one schema.
+                List<DatabaseResult.Row> rows = new ArrayList<>();
+                DatabaseResult.Schema schema = null;
+                for (Document doc : createFindIterable(query)) {
+                    if (schema == null || !schema.matches(doc.keySet())) {
+                        schema = DatabaseResult.Schema.of(doc.keySet());
+                    }
+                    rows.add(new DatabaseResult.Row(schema, doc.values().toArray()));
+                }
+
+                return new DatabaseResult(rows);
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB query on collection: " + query.collection(), e);
+        }
+    }
 
-            for (Object arg : args) {
-                String[] parts = arg.toString().split(":", 2);
-                if (parts.length == 2) {
-                    filters.add(Filters.eq(parts[0], parts[1]));
+    public <T> List<T> find(MongoQuery query, RowMapper<T> mapper) {
+        try {
+            return this.queryMetrics.time(query.collection() + ".find", () -> describe(query.filter()), () -> {
+                List<T> results = new ArrayList<>();
+                DocumentRow row = new DocumentRow(null);
+                for (Document doc : createFindIterable(query)) {
+                    results.add(mapper.map(row.wrap(doc)));
                 }
+                return results;
+            });
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB query on collection: " + query.collection(), e);
+        }
+    }
+
+    public DatabaseCursor openCursor(MongoQuery query) {
+        try {
+            return this.queryMetrics.time(query.collection() + ".find", () -> describe(query.filter()),
+                    () -> new DocumentCursor(createFindIterable(query).batchSize(STREAM_BATCH_SIZE).cursor()));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to open MongoDB cursor on collection: " + query.collection(), e);
+        }
+    }
+
+    public long forEachRow(MongoQuery query, Consumer<DatabaseCursor> rowHandler) {
+        long rows = 0;
+        try (DatabaseCursor cursor = openCursor(query)) {
+            while (cursor.next()) {
+                rowHandler.accept(cursor);
+                rows++;
             }
+        }
+        return rows;
+    }
 
-            FindIterable<Document> results = filters.isEmpty() ? 
-                collection.find() : collection.find(Filters.and(filters));
+    public long count(String collectionName, Bson filter) {
+        try {
+            return this.queryMetrics.time(collectionName + ".count", () -> describe(filter),
+                    () -> this.mongoDatabase.getCollection(collectionName).countDocuments(filter));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to count documents in MongoDB collection: " + collectionName, e);
+        }
+    }
 
-            List<DatabaseResult.Row> rows = new ArrayList<>();
-            for (Document doc : results) {
-                DatabaseResult.Row row = new DatabaseResult.Row();
-                for (String key : doc.keySet()) {
-                    row.put(key, doc.get(key));
-                }
-                rows.add(row);
+    public DatabaseResult insertOne(String collectionName, Document document) {
+        try {
+            InsertOneResult insertResult = this.queryMetrics.time(collectionName + ".insertOne", () -> "",
+                    () -> this.mongoDatabase.getCollection(collectionName).insertOne(document));
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            row.put("insertedId", Objects.requireNonNull(insertResult.getInsertedId()).toString());
+            row.put("acknowledged", insertResult.wasAcknowledged());
+            notifyWrite(collectionName);
+            return new DatabaseResult(List.of(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB insert on collection: " + collectionName, e);
+        }
+    }
+
+    public DatabaseResult updateOne(String collectionName, Bson filter, Bson update) {
+        try {
+            UpdateResult updateResult = this.queryMetrics.time(collectionName + ".updateOne", () -> describe(filter),
+                    () -> this.mongoDatabase.getCollection(collectionName).updateOne(filter, update));
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            row.put("matchedCount", updateResult.getMatchedCount());
+            row.put("modifiedCount", updateResult.getModifiedCount());
+            row.put("acknowledged", updateResult.wasAcknowledged());
+            notifyWrite(collectionName);
+            return new DatabaseResult(List.of(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB update on collection: " + collectionName, e);
+        }
+    }
+
+    // Typed counterpart of batchUpdate() for models the legacy "field:value" filters cannot express.
+    public DatabaseResult bulkWrite(String collectionName, List<? extends WriteModel<Document>> models) {
+        try {
+            if (models.isEmpty()) {
+                return new DatabaseResult(List.of());
             }
+            BulkWriteResult bulkResult = this.queryMetrics.time(collectionName + ".bulkWrite", () -> "<" + models.size() + " writes>",
+                    () -> this.mongoDatabase.getCollection(collectionName).bulkWrite(models, new BulkWriteOptions().ordered(true)));
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            row.put("insertedCount", bulkResult.getInsertedCount());
+            row.put("matchedCount", bulkResult.getMatchedCount());
+            row.put("modifiedCount", bulkResult.getModifiedCount());
+            row.put("upsertedCount", bulkResult.getUpserts().size());
+            row.put("acknowledged", bulkResult.wasAcknowledged());
+            notifyWrite(collectionName);
+            return new DatabaseResult(List.of(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB bulk write on collection: " + collectionName, e);
+        }
+    }
 
-            return new DatabaseResult(rows);
+    // Inserts when nothing matches the filter; with $setOnInsert this is an insert-if-absent.
+    public DatabaseResult upsert(String collectionName, Bson filter, Bson update) {
+        try {
+            UpdateResult updateResult = this.queryMetrics.time(collectionName + ".upsert", () -> describe(filter),
+                    () -> this.mongoDatabase.getCollection(collectionName).updateOne(filter, update, new UpdateOptions().upsert(true)));
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            row.put("matchedCount", updateResult.getMatchedCount());
+            row.put("modifiedCount", updateResult.getModifiedCount());
+            row.put("upsertedId", updateResult.getUpsertedId() != null ? updateResult.getUpsertedId().toString() : null);
+            row.put("acknowledged", updateResult.wasAcknowledged());
+            notifyWrite(collectionName);
+            return new DatabaseResult(List.of(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB upsert on collection: " + collectionName, e);
+        }
+    }
+
+    public DatabaseResult deleteOne(String collectionName, Bson filter) {
+        try {
+            DeleteResult deleteResult = this.queryMetrics.time(collectionName + ".deleteOne", () -> describe(filter),
+                    () -> this.mongoDatabase.getCollection(collectionName).deleteOne(filter));
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            row.put("deletedCount", deleteResult.getDeletedCount());
+            row.put("acknowledged", deleteResult.wasAcknowledged());
+            notifyWrite(collectionName);
+            return new DatabaseResult(List.of(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB delete on collection: " + collectionName, e);
+        }
+    }
+
+    // Typed writes bypass the IProcessor interface, so decorators such as caches subscribe here.
+    public void addWriteListener(Consumer<String> listener) {
+        this.writeListeners.add(listener);
+    }
+
+    private void notifyWrite(String collectionName) {
+        for (Consumer<String> listener : this.writeListeners) {
+            listener.accept(collectionName);
+        }
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return this.queryMetrics;
+    }
+
+    // Idempotent; MongoDB skips indexes that already exist with the same keys and options.
+    public void createIndex(String collectionName, Bson keys, boolean unique) {
+        try {
+            this.mongoDatabase.getCollection(collectionName).createIndex(keys, new IndexOptions().unique(unique));
         } catch (Exception e) {
-            throw new RuntimeException("Failed to execute MongoDB query on collection: " + query, e);
+            throw new RuntimeException("Failed to create MongoDB index on collection: " + collectionName, e);
+        }
+    }
+
+    private FindIterable<Document> createFindIterable(MongoQuery query) {
+        FindIterable<Document> results = this.mongoDatabase.getCollection(query.collection()).find(query.filter());
+        if (query.projection() != null) {
+            results = results.projection(query.projection());
+        }
+        if (query.sort() != null) {
+            results = results.sort(query.sort());
         }
+        if (query.limit() > 0) {
+            results = results.limit(query.limit());
+        }
+        return results;
     }
 
     @Override
@@ -95,26 +316,26 @@ public class MongoProcessor implements IProcessor {
             }
 
             String operation = (String) args[0];
-            Document document = Document.parse((String) args[1]);
+            Document document = toDocument(args[1]);
             List<DatabaseResult.Row> rows = new ArrayList<>();
             DatabaseResult.Row row = new DatabaseResult.Row();
 
             switch (operation.toUpperCase()) {
                 case "INSERT" -> {
-                    InsertOneResult insertResult = collection.insertOne(document);
+                    InsertOneResult insertResult = this.queryMetrics.time(query + ".insertOne", () -> "", () -> collection.insertOne(document));
                     row.put("insertedId", Objects.requireNonNull(insertResult.getInsertedId()).toString());
                     row.put("acknowledged", insertResult.wasAcknowledged());
                 }
                 case "UPDATE" -> {
-                    List<Bson> filters = createFiltersFromArgs(args, 2);
-                    UpdateResult updateResult = collection.updateOne(Filters.and(filters), document);
+                    Bson filter = createFilter(args, 2);
+                    UpdateResult updateResult = this.queryMetrics.time(query + ".updateOne", () -> describe(filter), () -> collection.updateOne(filter, document));
                     row.put("matchedCount", updateResult.getMatchedCount());
                     row.put("modifiedCount", updateResult.getModifiedCount());
                     row.put("acknowledged", updateResult.wasAcknowledged());
                 }
                 case "DELETE" -> {
-                    List<Bson> filters = createFiltersFromArgs(args, 2);
-                    DeleteResult deleteResult = collection.deleteOne(Filters.and(filters));
+                    Bson filter = createFilter(args, 2);
+                    DeleteResult deleteResult = this.queryMetrics.time(query + ".deleteOne", () -> describe(filter), () -> collection.deleteOne(filter));
                     row.put("deletedCount", deleteResult.getDeletedCount());
                     row.put("acknowledged", deleteResult.wasAcknowledged());
                 }
@@ -122,18 +343,139 @@ public class MongoProcessor implements IProcessor {
             }
 
             rows.add(row);
+            notifyWrite(query);
             return new DatabaseResult(rows);
         } catch (Exception e) {
             throw new RuntimeException("Failed to execute MongoDB update on collection: " + query, e);
         }
     }
 
+    // Items use the same layout as update(): operation, document, then "field:value" filters.
+    // One ordered bulkWrite covers the whole batch; only inserts get an exact per-item count from the server.
+    @Override
+    public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+        try {
+            MongoCollection<Document> collection = this.mongoDatabase.getCollection(query);
+            List<WriteModel<Document>> models = new ArrayList<>(batchArgs.size());
+
+            for (Object[] args : batchArgs) {
+                if (args.length < 2) {
+                    throw new IllegalArgumentException("MongoDB batch items require at least operation and document parameters");
+                }
+
+                String operation = ((String) args[0]).toUpperCase();
+                switch (operation) {
+                    case "INSERT" -> models.add(new InsertOneModel<>(toDocument(args[1])));
+                    case "UPDATE" -> models.add(new UpdateOneModel<>(createFilter(args, 2), toDocument(args[1])));
+                    case "DELETE" -> models.add(new DeleteOneModel<>(createFilter(args, 2)));
+                    default -> throw new IllegalArgumentException("Unsupported MongoDB operation: " + operation);
+                }
+            }
+
+            List<DatabaseResult.Row> rows = new ArrayList<>(models.size());
+            if (models.isEmpty()) {
+                return new DatabaseResult(rows);
+            }
+
+            BulkWriteResult bulkResult = this.queryMetrics.time(query + ".bulkWrite", () -> "<" + models.size() + " writes>",
+                    () -> collection.bulkWrite(models, new BulkWriteOptions().ordered(true)));
+            notifyWrite(query);
+            Map<Integer, BsonValue> insertedIds = new HashMap<>();
+            for (BulkWriteInsert insert : bulkResult.getInserts()) {
+                insertedIds.put(insert.getIndex(), insert.getId());
+            }
+
+            for (int i = 0; i < models.size(); i++) {
+                boolean inserted = models.get(i) instanceof InsertOneModel;
+                BsonValue insertedId = insertedIds.get(i);
+                rows.add(new DatabaseResult.Row(BATCH_SCHEMA, new Object[]{
+                        i,
+                        inserted ? 1 : Statement.SUCCESS_NO_INFO,
+                        insertedId != null ? insertedId.toString() : null,
+                        bulkResult.wasAcknowledged()
+                }));
+            }
+            return new DatabaseResult(rows);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB batch update on collection: " + query, e);
+        }
+    }
+
+    // Multi-document transactions need a replica set, which a standalone dashboard server usually lacks,
+    // so the block runs statement by statement without atomicity.
+    @Override
+    public <T> T inTransaction(TransactionCallback<T> callback) {
+        return callback.execute(new Transaction() {
+            @Override
+            public DatabaseResult query(String query, Object... args) {
+                return MongoProcessor.this.query(query, args);
+            }
+
+            @Override
+            public <R> List<R> query(String query, RowMapper<R> mapper, Object... args) {
+                return MongoProcessor.this.query(query, mapper, args);
+            }
+
+            @Override
+            public DatabaseResult update(String query, Object... args) {
+                return MongoProcessor.this.update(query, args);
+            }
+
+            @Override
+            public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+                return MongoProcessor.this.batchUpdate(query, batchArgs);
+            }
+        });
+    }
+
+    public DatabaseResult deleteMany(String collectionName, Bson filter) {
+        try {
+            DeleteResult deleteResult = this.queryMetrics.time(collectionName + ".deleteMany", () -> describe(filter),
+                    () -> this.mongoDatabase.getCollection(collectionName).deleteMany(filter));
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            row.put("deletedCount", deleteResult.getDeletedCount());
+            row.put("acknowledged", deleteResult.wasAcknowledged());
+            notifyWrite(collectionName);
+            return new DatabaseResult(List.of(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to execute MongoDB delete on collection: " + collectionName, e);
+        }
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return this.executor;
+    }
+
     @Override
     public Connection getConnection() {
         return null;
     }
 
-    private List<Bson> createFiltersFromArgs(Object[] args, int startIndex) {
+    private Document toDocument(Object value) {
+        return value instanceof Document document ? document : Document.parse(value.toString());
+    }
+
+    // Slow-operation log entries show the filter's shape only; every value is replaced by "?".
+    private String describe(Bson filter) {
+        return redact(filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry())).asDocument().toJson();
+    }
+
+    private BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> redacted.append(key, redact(nested)));
+            return redacted;
+        }
+        if (value.isArray()) {
+            BsonArray redacted = new BsonArray();
+            value.asArray().forEach(nested -> redacted.add(redact(nested)));
+            return redacted;
+        }
+        return new BsonString("?");
+    }
+
+    private Bson createFilter(Object[] args, int startIndex) {
         List<Bson> filters = new ArrayList<>();
         for (int i = startIndex; i < args.length; i++) {
             String[] parts = args[i].toString().split(":", 2);
@@ -141,7 +483,7 @@ public class MongoProcessor implements IProcessor {
                 filters.add(Filters.eq(parts[0], parts[1]));
             }
         }
-        return filters;
+        return filters.isEmpty() ? Filters.empty() : Filters.and(filters);
     }
 
     protected String getDatabaseType() {
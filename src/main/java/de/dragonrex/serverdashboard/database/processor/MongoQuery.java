@@ -0,0 +1,27 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import com.mongodb.client.model.Filters;
+import org.bson.conversions.Bson;
+
+public record MongoQuery(String collection, Bson filter, Bson projection, Bson sort, int limit) {
+
+    public static MongoQuery of(String collection) {
+        return new MongoQuery(collection, Filters.empty(), null, null, 0);
+    }
+
+    public static MongoQuery of(String collection, Bson filter) {
+        return new MongoQuery(collection, filter, null, null, 0);
+    }
+
+    public MongoQuery withProjection(Bson projection) {
+        return new MongoQuery(this.collection, this.filter, projection, this.sort, this.limit);
+    }
+
+    public MongoQuery withSort(Bson sort) {
+        return new MongoQuery(this.collection, this.filter, this.projection, sort, this.limit);
+    }
+
+    public MongoQuery withLimit(int limit) {
+        return new MongoQuery(this.collection, this.filter, this.projection, this.sort, limit);
+    }
+}
@@ -2,12 +2,27 @@ package de.dragonrex.serverdashboard.database.processor;
 
 import de.dragonrex.serverdashboard.database.Database;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 public class MySQLProcessor extends AbstractSQLProcessor {
 
     public MySQLProcessor(Database database) {
         super(database);
     }
 
+    // Connector/J only streams row by row when the fetch size is Integer.MIN_VALUE.
+    @Override
+    protected void configureStreaming(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public SQLDialect getDialect() {
+        return SQLDialect.MYSQL;
+    }
+
     @Override
     protected String getDatabaseType() {
         return "MySQL";
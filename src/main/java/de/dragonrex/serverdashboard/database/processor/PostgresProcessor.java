@@ -2,12 +2,28 @@ package de.dragonrex.serverdashboard.database.processor;
 
 import de.dragonrex.serverdashboard.database.Database;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 public class PostgresProcessor extends AbstractSQLProcessor {
 
     public PostgresProcessor(Database database) {
         super(database);
     }
 
+    // pgjdbc ignores the fetch size and buffers everything while autocommit is enabled.
+    @Override
+    protected void configureStreaming(Connection connection, PreparedStatement statement) throws SQLException {
+        connection.setAutoCommit(false);
+        statement.setFetchSize(STREAM_FETCH_SIZE);
+    }
+
+    @Override
+    public SQLDialect getDialect() {
+        return SQLDialect.POSTGRES;
+    }
+
     @Override
     protected String getDatabaseType() {
         return "PostgreSQL";
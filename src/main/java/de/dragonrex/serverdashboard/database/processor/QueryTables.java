@@ -0,0 +1,61 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Best-effort table detection for decorators that track what a statement reads or writes.
+// Mongo statements are collection names; SQL is scanned for FROM/JOIN/INTO/UPDATE/TABLE targets.
+// The UPDATE of an upsert's conflict clause (DO UPDATE / KEY UPDATE) is not a target.
+final class QueryTables {
+    static final String ALL = "*";
+
+    private static final Pattern TABLE_PATTERN = Pattern.compile(
+            "\\b(?:FROM|JOIN|INTO|(?<!DO\\s|KEY\\s)UPDATE|TABLE(?:\\s+IF\\s+(?:NOT\\s+)?EXISTS)?)\\s+[\"`]?([A-Za-z_][A-Za-z0-9_.]*)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_LIST_PATTERN = Pattern.compile(
+            "\\bFROM\\s+[A-Za-z0-9_.\"`]+(?:\\s+(?:AS\\s+)?[A-Za-z0-9_]+)?\\s*,", Pattern.CASE_INSENSITIVE);
+    private static final Pattern READ_PATTERN = Pattern.compile("^\\s*(?:SELECT|WITH)\\b", Pattern.CASE_INSENSITIVE);
+
+    private QueryTables() {
+    }
+
+    // Empty when the tables cannot all be determined, e.g. comma joins or non-SELECT statements.
+    static Set<String> read(String query, boolean mongo) {
+        if (mongo && isCollectionName(query)) {
+            return Set.of(query.toLowerCase(Locale.ROOT));
+        }
+        if (!READ_PATTERN.matcher(query).find() || TABLE_LIST_PATTERN.matcher(query).find()) {
+            return Set.of();
+        }
+        return extract(query);
+    }
+
+    // Falls back to ALL when nothing can be extracted, so callers err on the side of invalidating too much.
+    static Set<String> written(String query, boolean mongo) {
+        if (mongo && isCollectionName(query)) {
+            return Set.of(query.toLowerCase(Locale.ROOT));
+        }
+        Set<String> tables = extract(query);
+        return tables.isEmpty() ? Set.of(ALL) : tables;
+    }
+
+    static String normalize(String query) {
+        return query.strip().replaceAll("\\s+", " ");
+    }
+
+    private static boolean isCollectionName(String query) {
+        return !query.isBlank() && query.chars().noneMatch(Character::isWhitespace);
+    }
+
+    private static Set<String> extract(String query) {
+        Set<String> tables = new HashSet<>();
+        Matcher matcher = TABLE_PATTERN.matcher(query);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+        return tables;
+    }
+}
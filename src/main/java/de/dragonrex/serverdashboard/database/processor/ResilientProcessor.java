@@ -0,0 +1,308 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import de.dragonrex.serverdashboard.database.DatabaseCursor;
+import de.dragonrex.serverdashboard.database.DatabaseExecutor;
+import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.DatabaseUnavailableException;
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.sql.Connection;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Puts a deadline on every operation and a circuit breaker in front of the backend, so an outage
+// costs callers milliseconds instead of the driver's connect timeout. While the backend is unavailable,
+// reads fall back to the last result seen for the same query; writes fail fast.
+public class ResilientProcessor implements IProcessor {
+    private final IProcessor delegate;
+    private final Settings settings;
+    private final boolean mongo;
+    private final CircuitBreaker breaker;
+    private final ExecutorService callers;
+    private final LinkedHashMap<FallbackKey, FallbackEntry> fallback;
+
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong fallbackHits = new AtomicLong();
+    private final AtomicLong fallbackMisses = new AtomicLong();
+
+    public ResilientProcessor(IProcessor delegate, Settings settings) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.mongo = delegate.unwrap(MongoProcessor.class).isPresent();
+        this.breaker = new CircuitBreaker(delegate.getClass().getSimpleName(), settings.failureThreshold(), settings.openMillis());
+        // Timed-out calls keep running until the driver gives up; virtual threads make that cheap.
+        this.callers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("database-call-", 0).factory());
+        this.fallback = new LinkedHashMap<>(16, 0.75f, true);
+        delegate.unwrap(MongoProcessor.class).ifPresent(processor ->
+                processor.addWriteListener(collection -> forget(QueryTables.written(collection, true))));
+    }
+
+    @Override
+    public void connect() {
+        this.delegate.connect();
+    }
+
+    @Override
+    public void disconnect() {
+        this.callers.shutdownNow();
+        this.delegate.disconnect();
+    }
+
+    @Override
+    public DatabaseResult query(String query, Object... args) {
+        FallbackKey key = new FallbackKey(QueryTables.normalize(query), Arrays.asList(args.clone()), null);
+        try {
+            DatabaseResult result = call(() -> this.delegate.query(query, args), this.settings.readTimeoutMillis(), null);
+            remember(key, query, result.copy());
+            return result;
+        } catch (RuntimeException e) {
+            DatabaseResult stale = recall(key, e, DatabaseResult.class);
+            return stale.copy();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(String query, RowMapper<T> mapper, Object... args) {
+        FallbackKey key = new FallbackKey(QueryTables.normalize(query), Arrays.asList(args.clone()), mapper);
+        try {
+            List<T> result = call(() -> this.delegate.query(query, mapper, args), this.settings.readTimeoutMillis(), null);
+            remember(key, query, Collections.unmodifiableList(new ArrayList<>(result)));
+            return result;
+        } catch (RuntimeException e) {
+            return new ArrayList<>(recall(key, e, List.class));
+        }
+    }
+
+    // The deadline covers opening the cursor; a cursor that opens after its caller gave up is closed again.
+    @Override
+    public DatabaseCursor openCursor(String query, Object... args) {
+        return call(() -> this.delegate.openCursor(query, args), this.settings.readTimeoutMillis(), DatabaseCursor::close);
+    }
+
+    // A write that times out may still commit later, so the fallback entries are dropped either way.
+    @Override
+    public DatabaseResult update(String query, Object... args) {
+        try {
+            return call(() -> this.delegate.update(query, args), this.settings.writeTimeoutMillis(), null);
+        } finally {
+            forget(QueryTables.written(query, this.mongo));
+        }
+    }
+
+    @Override
+    public CompletableFuture<DatabaseResult> updateAsync(String query, Object... args) {
+        if (!this.breaker.tryAcquire()) {
+            forget(QueryTables.written(query, this.mongo));
+            return CompletableFuture.failedFuture(new DatabaseUnavailableException("Database circuit breaker is open"));
+        }
+        return this.delegate.updateAsync(query, args)
+                .orTimeout(this.settings.writeTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    record(error);
+                    forget(QueryTables.written(query, this.mongo));
+                });
+    }
+
+    @Override
+    public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+        try {
+            return call(() -> this.delegate.batchUpdate(query, batchArgs), this.settings.writeTimeoutMillis(), null);
+        } finally {
+            forget(QueryTables.written(query, this.mongo));
+        }
+    }
+
+    @Override
+    public <T> T inTransaction(TransactionCallback<T> callback) {
+        try {
+            return call(() -> this.delegate.inTransaction(callback), this.settings.writeTimeoutMillis(), null);
+        } finally {
+            forget(Set.of(QueryTables.ALL));
+        }
+    }
+
+    // Raw connections are handed out without a deadline: one acquired after its caller gave up would leak.
+    @Override
+    public Connection getConnection() {
+        if (!this.breaker.tryAcquire()) {
+            throw new DatabaseUnavailableException("Database circuit breaker is open");
+        }
+        try {
+            Connection connection = this.delegate.getConnection();
+            this.breaker.onSuccess();
+            return connection;
+        } catch (RuntimeException e) {
+            record(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public DatabaseExecutor getExecutor() {
+        return this.delegate.getExecutor();
+    }
+
+    @Override
+    public <T> T guard(Supplier<T> operation) {
+        return call(operation, this.settings.readTimeoutMillis(), null);
+    }
+
+    @Override
+    public <T> T guardWrite(Supplier<T> operation) {
+        return call(operation, this.settings.writeTimeoutMillis(), null);
+    }
+
+    @Override
+    public <T> Optional<T> unwrap(Class<T> type) {
+        return type.isInstance(this) ? Optional.of(type.cast(this)) : this.delegate.unwrap(type);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(this.breaker.getStats());
+        stats.put("readTimeoutMillis", this.settings.readTimeoutMillis());
+        stats.put("writeTimeoutMillis", this.settings.writeTimeoutMillis());
+        stats.put("timeouts", this.timeouts.get());
+        synchronized (this.fallback) {
+            stats.put("fallbackEntries", this.fallback.size());
+        }
+        stats.put("fallbackHits", this.fallbackHits.get());
+        stats.put("fallbackMisses", this.fallbackMisses.get());
+        return stats;
+    }
+
+    private <T> T call(Supplier<T> operation, long timeoutMillis, Consumer<T> abandon) {
+        if (!this.breaker.tryAcquire()) {
+            throw new DatabaseUnavailableException("Database circuit breaker is open");
+        }
+
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(operation, this.callers);
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            this.breaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            this.timeouts.incrementAndGet();
+            this.breaker.onFailure();
+            if (abandon != null) {
+                future.thenAccept(abandon);
+            }
+            throw new DatabaseUnavailableException("Database operation exceeded its deadline of " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.breaker.onFailure();
+            if (abandon != null) {
+                future.thenAccept(abandon);
+            }
+            throw new DatabaseUnavailableException("Interrupted while waiting for the database", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            record(cause);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    // Constraint violations and syntax errors prove the backend is up; only connectivity problems count.
+    private void record(Throwable error) {
+        if (error != null && isUnavailable(error)) {
+            this.breaker.onFailure();
+        } else {
+            this.breaker.onSuccess();
+        }
+    }
+
+    private static boolean isUnavailable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseUnavailableException
+                    || cause instanceof TimeoutException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SocketException
+                    || cause instanceof SocketTimeoutException
+                    || cause instanceof MongoSocketException
+                    || cause instanceof MongoTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remember(FallbackKey key, String query, Object value) {
+        Set<String> tables = QueryTables.read(query, this.mongo);
+        if (tables.isEmpty()) {
+            return;
+        }
+        synchronized (this.fallback) {
+            this.fallback.put(key, new FallbackEntry(value, tables));
+            if (this.fallback.size() > this.settings.fallbackMaxEntries()) {
+                Iterator<FallbackKey> eldest = this.fallback.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private <T> T recall(FallbackKey key, RuntimeException error, Class<T> type) {
+        if (!isUnavailable(error)) {
+            throw error;
+        }
+        FallbackEntry entry;
+        synchronized (this.fallback) {
+            entry = this.fallback.get(key);
+        }
+        if (entry == null) {
+            this.fallbackMisses.incrementAndGet();
+            throw error;
+        }
+        this.fallbackHits.incrementAndGet();
+        return type.cast(entry.value());
+    }
+
+    private void forget(Set<String> tables) {
+        synchronized (this.fallback) {
+            if (tables.contains(QueryTables.ALL)) {
+                this.fallback.clear();
+                return;
+            }
+            this.fallback.values().removeIf(entry -> entry.tables().stream().anyMatch(tables::contains));
+        }
+    }
+
+    public record Settings(long readTimeoutMillis, long writeTimeoutMillis, int failureThreshold, long openMillis,
+                           int fallbackMaxEntries) {
+    }
+
+    private record FallbackKey(String query, List<Object> args, Object mapper) {
+    }
+
+    private record FallbackEntry(Object value, Set<String> tables) {
+    }
+}
@@ -0,0 +1,62 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Native single-statement forms for writes that would otherwise need a read before the write.
+// Both forms rely on a unique index over the key columns.
+public enum SQLDialect {
+    SQLITE,
+    POSTGRES,
+    MYSQL;
+
+    // Affects 0 rows when a row with the same key already exists.
+    public String insertIfAbsent(String table, String keyColumn, String... columns) {
+        return switch (this) {
+            case SQLITE, POSTGRES -> insert(table, columns) + " ON CONFLICT (" + keyColumn + ") DO NOTHING";
+            case MYSQL -> "INSERT IGNORE" + insert(table, columns).substring("INSERT".length());
+        };
+    }
+
+    // Columns other than the key are overwritten when a row with the same key already exists.
+    public String upsert(String table, String keyColumn, String... columns) {
+        Map<String, String> assignments = new LinkedHashMap<>();
+        for (String column : columns) {
+            if (!column.equals(keyColumn)) {
+                assignments.put(column, newValue(column));
+            }
+        }
+        return upsert(table, List.of(keyColumn), List.of(columns), assignments);
+    }
+
+    // Assignments may combine the existing row (table.column) with newValue(column). MySQL applies them left
+    // to right and later ones see earlier results, so columns used by other assignments must come last.
+    public String upsert(String table, List<String> keyColumns, List<String> columns, Map<String, String> assignments) {
+        String updates = assignments.entrySet().stream()
+                .map(assignment -> assignment.getKey() + " = " + assignment.getValue())
+                .collect(Collectors.joining(", "));
+
+        return switch (this) {
+            case SQLITE, POSTGRES -> insert(table, columns.toArray(String[]::new))
+                    + " ON CONFLICT (" + String.join(", ", keyColumns) + ") DO UPDATE SET " + updates;
+            case MYSQL -> insert(table, columns.toArray(String[]::new)) + " ON DUPLICATE KEY UPDATE " + updates;
+        };
+    }
+
+    // The value the conflicting insert tried to write.
+    public String newValue(String column) {
+        return switch (this) {
+            case SQLITE, POSTGRES -> "excluded." + column;
+            // VALUES() is deprecated in MySQL 8.0.20 but is the only form MariaDB understands.
+            case MYSQL -> "VALUES(" + column + ")";
+        };
+    }
+
+    private static String insert(String table, String... columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.length, "?")) + ")";
+    }
+}
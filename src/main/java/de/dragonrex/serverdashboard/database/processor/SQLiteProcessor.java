@@ -2,20 +2,48 @@ package de.dragonrex.serverdashboard.database.processor;
 
 import de.dragonrex.serverdashboard.database.Database;
 import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
 
 public class SQLiteProcessor extends AbstractSQLProcessor {
+    private static final Logger LOGGER = Logger.getLogger(SQLiteProcessor.class.getName());
+    private static final int WRITER_QUEUE_CAPACITY = 10000;
+    private static final int DEFAULT_VACUUM_PAGES = 1000;
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private final boolean singleWriter;
+    private final int writerBatchSize;
+    private SQLiteWriter writer;
 
     public SQLiteProcessor(Database database) {
+        this(database, false, 1);
+    }
+
+    public SQLiteProcessor(Database database, boolean singleWriter, int writerBatchSize) {
         super(database);
+        this.singleWriter = singleWriter;
+        this.writerBatchSize = writerBatchSize;
     }
 
     @Override
     public void connect() {
+        // busy_timeout is per connection; without it, maintenance writes on pool connections fail with
+        // SQLITE_BUSY instead of waiting for the single writer's group commit to finish.
+        this.database.getConfig().setConnectionInitSql("PRAGMA busy_timeout = " + SQLiteWriter.BUSY_TIMEOUT_MILLIS);
         super.connect();
 
         try (Connection connection = this.pool.getConnection()) {
@@ -23,10 +51,87 @@ public class SQLiteProcessor extends AbstractSQLProcessor {
         } catch (SQLException e) {
             throw new RuntimeException("Failed to configure SQLite-specific settings", e);
         }
+
+        if (this.singleWriter) {
+            this.writer = new SQLiteWriter(this.database.getJdbcUrl(), WRITER_QUEUE_CAPACITY, this.writerBatchSize);
+        }
     }
 
+    @Override
+    public void disconnect() {
+        if (this.writer != null) {
+            this.writer.shutdown();
+        }
+        super.disconnect();
+    }
+
+    // In single-writer mode every write goes through the writer queue; reads keep using the pool.
+    // Timings then include the wait in the queue, which is what the caller experiences.
+    @Override
+    public DatabaseResult update(String query, Object... args) {
+        if (this.writer == null) {
+            return super.update(query, args);
+        }
+        return this.queryMetrics.timeSql(query, args, () -> await(this.writer.submit(tx -> tx.update(query, args))));
+    }
+
+    @Override
+    public DatabaseResult batchUpdate(String query, List<Object[]> batchArgs) {
+        if (this.writer == null) {
+            return super.batchUpdate(query, batchArgs);
+        }
+        return this.queryMetrics.timeBatch(query, batchArgs, () -> await(this.writer.submit(tx -> tx.batchUpdate(query, batchArgs))));
+    }
+
+    @Override
+    public <T> T inTransaction(TransactionCallback<T> callback) {
+        if (this.writer == null) {
+            return super.inTransaction(callback);
+        }
+        return this.queryMetrics.time(TRANSACTION_KEY, () -> "", () -> await(this.writer.submit(callback)));
+    }
+
+    @Override
+    public CompletableFuture<DatabaseResult> updateAsync(String query, Object... args) {
+        if (this.writer == null) {
+            return super.updateAsync(query, args);
+        }
+        return this.writer.submit(tx -> tx.update(query, args));
+    }
+
+    @Override
+    protected String getExplainPrefix() {
+        return "EXPLAIN QUERY PLAN ";
+    }
+
+    public Map<String, Object> getWriterStats() {
+        return this.writer != null ? this.writer.getStats() : Map.of("singleWriter", false);
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("SQLite write failed", e.getCause());
+        }
+    }
+
+    // auto_vacuum must be set before journal_mode: once the file is in WAL mode the pragma is ignored,
+    // even on a fresh file. Existing files keep their mode until a full VACUUM rewrites them, which
+    // happens once here and works in WAL mode as well.
     private void configureSQLiteSettings(Connection connection) throws SQLException {
         try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            if (queryInt(connection, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                long start = System.currentTimeMillis();
+                statement.execute("VACUUM");
+                LOGGER.info("SQLite-Datenbank einmalig auf auto_vacuum = INCREMENTAL umgestellt ("
+                        + (System.currentTimeMillis() - start) + " ms)");
+            }
+
             statement.execute("PRAGMA journal_mode = WAL");
 
             statement.execute("PRAGMA synchronous = NORMAL");
@@ -40,49 +145,116 @@ public class SQLiteProcessor extends AbstractSQLProcessor {
             statement.execute("PRAGMA optimize");
 
             statement.execute("PRAGMA foreign_keys = ON");
+        }
+    }
 
-            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+    public void optimizeDatabase() {
+        optimize();
+        incrementalVacuum(DEFAULT_VACUUM_PAGES);
+    }
+
+    // Re-analyzes only the tables whose statistics SQLite considers stale.
+    public void optimize() {
+        try (Connection connection = this.pool.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            statement.execute("PRAGMA optimize");
+
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to optimize SQLite database", e);
         }
     }
 
-    @Override
-    public DatabaseResult update(String query, Object... args) {
+    public void analyze() {
         try (Connection connection = this.pool.getConnection();
-             PreparedStatement statement = connection.prepareStatement(query)) {
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to analyze SQLite database", e);
+        }
+    }
 
-            for (int i = 0; i < args.length; i++) {
-                statement.setObject(i + 1, args[i]);
+    // The driver steps a statement only once and incremental_vacuum frees one page per step, so the
+    // pragma is repeated once per page. One transaction per call keeps the write lock short.
+    // connect() switches every file to INCREMENTAL; the check only guards against that conversion failing.
+    // Returns the pages actually released, measured on the free list.
+    public int incrementalVacuum(int maxPages) {
+        try (Connection connection = this.pool.getConnection()) {
+            if (queryInt(connection, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                return 0;
+            }
+            int freePages = queryInt(connection, "PRAGMA freelist_count");
+            int pages = Math.min(maxPages, freePages);
+            if (pages <= 0) {
+                return 0;
             }
 
-            int affectedRows = statement.executeUpdate();
-
-            DatabaseResult.Row row = new DatabaseResult.Row();
-            row.put("affectedRows", affectedRows);
-
-            if (query.trim().toUpperCase().startsWith("INSERT")) {
-                try (Statement lastIdStatement = connection.createStatement()) {
-                    var resultSet = lastIdStatement.executeQuery("SELECT last_insert_rowid()");
-                    if (resultSet.next()) {
-                        row.put("lastInsertRowId", resultSet.getLong(1));
-                    }
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (int i = 0; i < pages; i++) {
+                    statement.execute("PRAGMA incremental_vacuum(1)");
                 }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-
-            return new DatabaseResult(java.util.List.of(row));
+            return Math.max(0, freePages - queryInt(connection, "PRAGMA freelist_count"));
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to execute SQLite update: " + query, e);
+            throw new RuntimeException("Failed to run incremental vacuum on SQLite database", e);
         }
     }
 
-    public void optimizeDatabase() {
+    // PASSIVE never waits for readers or writers; TRUNCATE waits for them and resets the WAL file to zero bytes.
+    public DatabaseResult checkpoint(boolean truncate) {
         try (Connection connection = this.pool.getConnection();
-             Statement statement = connection.createStatement()) {
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA wal_checkpoint(" + (truncate ? "TRUNCATE" : "PASSIVE") + ")")) {
+            DatabaseResult.Row row = new DatabaseResult.Row();
+            if (resultSet.next()) {
+                row.put("busy", resultSet.getInt(1) != 0);
+                row.put("walFrames", resultSet.getInt(2));
+                row.put("checkpointedFrames", resultSet.getInt(3));
+            }
+            return new DatabaseResult(List.of(row));
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to checkpoint SQLite WAL", e);
+        }
+    }
 
-            statement.execute("PRAGMA optimize");
-            statement.execute("PRAGMA incremental_vacuum");
+    public long getWalSizeBytes() {
+        try {
+            Path walFile = Path.of(getDatabaseFile() + "-wal");
+            return Files.exists(walFile) ? Files.size(walFile) : 0L;
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
 
+    public Path getDatabaseFile() {
+        String path = this.database.getJdbcUrl().substring("jdbc:sqlite:".length());
+        int options = path.indexOf('?');
+        return Path.of(options >= 0 ? path.substring(0, options) : path);
+    }
+
+    private int queryInt(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    // VACUUM INTO copies one read snapshot on a connection of its own, so it holds no pool slot and,
+    // in WAL mode, never blocks writers. The stepped backup API would restart on every concurrent write.
+    public void backupTo(Path target) {
+        try (Connection connection = DriverManager.getConnection(this.database.getJdbcUrl());
+             PreparedStatement statement = connection.prepareStatement("VACUUM INTO ?")) {
+            statement.setString(1, target.toAbsolutePath().toString());
+            statement.execute();
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to optimize SQLite database", e);
+            throw new RuntimeException("Failed to back up SQLite database to " + target, e);
         }
     }
 
@@ -111,6 +283,12 @@ public class SQLiteProcessor extends AbstractSQLProcessor {
                 }
             }
 
+            stats.put("pageCount", queryInt(connection, "PRAGMA page_count"));
+            stats.put("freelistCount", queryInt(connection, "PRAGMA freelist_count"));
+            // 2 = INCREMENTAL; connect() converts files in any other mode.
+            stats.put("autoVacuum", queryInt(connection, "PRAGMA auto_vacuum"));
+            stats.put("walSize", getWalSizeBytes());
+
             return new DatabaseResult(java.util.List.of(stats));
 
         } catch (SQLException e) {
@@ -118,6 +296,11 @@ public class SQLiteProcessor extends AbstractSQLProcessor {
         }
     }
 
+    @Override
+    public SQLDialect getDialect() {
+        return SQLDialect.SQLITE;
+    }
+
     @Override
     protected String getDatabaseType() {
         return "SQLite";
@@ -0,0 +1,207 @@
+package de.dragonrex.serverdashboard.database.processor;
+
+import de.dragonrex.serverdashboard.database.SQLTransaction;
+import de.dragonrex.serverdashboard.database.TransactionCallback;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Owns the only connection that writes to the SQLite file. Pending writes are drained in groups and
+// committed together; each write runs inside its own savepoint, so one failure does not undo the others.
+public class SQLiteWriter {
+    private static final Logger LOGGER = Logger.getLogger(SQLiteWriter.class.getName());
+    // Shared with the pool connections, which may write outside the writer (maintenance, ANALYZE, checkpoints).
+    static final int BUSY_TIMEOUT_MILLIS = 5000;
+    // Per statement kind; enough for the fixed hot-path writes, while dynamic SQL gets evicted.
+    private static final int MAX_CACHED_STATEMENTS = 32;
+
+    private final BlockingQueue<WriteTask<?>> queue;
+    private final int maxBatchSize;
+    private final Connection connection;
+    private final SQLTransaction transaction;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private volatile int largestBatch;
+
+    public SQLiteWriter(String jdbcUrl, int queueCapacity, int maxBatchSize) {
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+
+        try {
+            this.connection = DriverManager.getConnection(jdbcUrl);
+            try (Statement statement = this.connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode = WAL");
+                statement.execute("PRAGMA synchronous = NORMAL");
+                statement.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+                statement.execute("PRAGMA foreign_keys = ON");
+            }
+            this.connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to open SQLite writer connection", e);
+        }
+
+        // Statements stay prepared across batches, up to MAX_CACHED_STATEMENTS per kind.
+        this.transaction = new SQLTransaction(this.connection, MAX_CACHED_STATEMENTS);
+        this.thread = new Thread(this::run, "sqlite-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public <T> CompletableFuture<T> submit(TransactionCallback<T> callback) {
+        if (Thread.currentThread() == this.thread) {
+            throw new IllegalStateException("Nested write from inside a SQLite write transaction; use the transaction instead");
+        }
+
+        WriteTask<T> task = new WriteTask<>(callback);
+        if (!this.running) {
+            task.future.completeExceptionally(new IllegalStateException("SQLite writer is shut down"));
+            return task.future;
+        }
+
+        try {
+            this.queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.future.completeExceptionally(e);
+        }
+        return task.future;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queuedWrites", this.queue.size());
+        stats.put("committedWrites", this.committedWrites.get());
+        stats.put("failedWrites", this.failedWrites.get());
+        stats.put("commits", this.commits.get());
+        long commitCount = this.commits.get();
+        stats.put("averageBatchSize", commitCount == 0 ? 0.0 : (double) (this.committedWrites.get() + this.failedWrites.get()) / commitCount);
+        stats.put("largestBatch", this.largestBatch);
+        stats.put("cachedStatements", this.transaction.getCachedStatementCount());
+        stats.put("evictedStatements", this.transaction.getEvictedStatementCount());
+        return stats;
+    }
+
+    public void shutdown() {
+        this.running = false;
+        try {
+            this.thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.transaction.close();
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "SQLite-Schreibverbindung konnte nicht geschlossen werden", e);
+        }
+    }
+
+    private void run() {
+        List<WriteTask<?>> batch = new ArrayList<>(this.maxBatchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                WriteTask<?> first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.maxBatchSize - 1);
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        WriteTask<?> remaining;
+        while ((remaining = this.queue.poll()) != null) {
+            remaining.future.completeExceptionally(new IllegalStateException("SQLite writer is shut down"));
+        }
+    }
+
+    private void commitBatch(List<WriteTask<?>> batch) {
+        this.largestBatch = Math.max(this.largestBatch, batch.size());
+        try {
+            for (WriteTask<?> task : batch) {
+                Savepoint savepoint = this.connection.setSavepoint();
+                try {
+                    task.execute(this.transaction);
+                    this.connection.releaseSavepoint(savepoint);
+                } catch (RuntimeException e) {
+                    this.connection.rollback(savepoint);
+                    task.failure = e;
+                }
+            }
+            this.connection.commit();
+            this.commits.incrementAndGet();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            RuntimeException failure = new RuntimeException("Failed to commit SQLite write batch", e);
+            for (WriteTask<?> task : batch) {
+                task.failure = failure;
+            }
+        }
+
+        // Futures complete only after the commit, so callers never observe uncommitted writes.
+        for (WriteTask<?> task : batch) {
+            if (task.failure != null) {
+                this.failedWrites.incrementAndGet();
+            } else {
+                this.committedWrites.incrementAndGet();
+            }
+            task.complete();
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            this.connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Rollback des SQLite-Schreibbatches fehlgeschlagen", e);
+        }
+    }
+
+    private static final class WriteTask<T> {
+        private final TransactionCallback<T> callback;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        private WriteTask(TransactionCallback<T> callback) {
+            this.callback = callback;
+        }
+
+        private void execute(SQLTransaction transaction) {
+            this.result = this.callback.execute(transaction);
+        }
+
+        private void complete() {
+            if (this.failure != null) {
+                this.future.completeExceptionally(this.failure);
+            } else {
+                this.future.complete(this.result);
+            }
+        }
+    }
+}
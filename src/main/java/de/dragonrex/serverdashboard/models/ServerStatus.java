@@ -6,6 +6,7 @@ import lombok.Setter;
 @Setter
 @Getter
 public class ServerStatus {
+    private String serverId;
     private int currentPlayers;
     private int maxPlayers;
     private String serverName;
@@ -13,7 +14,8 @@ public class ServerStatus {
     @Override
     public String toString() {
         return "ServerStatus{" +
-                "currentPlayers=" + currentPlayers +
+                "serverId='" + serverId + '\'' +
+                ", currentPlayers=" + currentPlayers +
                 ", maxPlayers=" + maxPlayers +
                 ", serverName='" + serverName + '\'' +
                 '}';
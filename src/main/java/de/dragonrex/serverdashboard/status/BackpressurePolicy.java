@@ -0,0 +1,16 @@
+package de.dragonrex.serverdashboard.status;
+
+public enum BackpressurePolicy {
+    DROP_INTERMEDIATE,
+    SNAPSHOT_ONLY,
+    DISCONNECT;
+
+    public static BackpressurePolicy fromConfig(String value) {
+        for (BackpressurePolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(value)) {
+                return policy;
+            }
+        }
+        return DROP_INTERMEDIATE;
+    }
+}
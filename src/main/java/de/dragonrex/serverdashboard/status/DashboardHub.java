@@ -0,0 +1,179 @@
+package de.dragonrex.serverdashboard.status;
+
+import io.javalin.websocket.WsContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+public class DashboardHub {
+    private static final Logger LOGGER = Logger.getLogger(DashboardHub.class.getName());
+
+    // Understood by the reconnect loop in dashboard.js, which backs off before reconnecting.
+    public static final int CLOSE_TOO_SLOW = 4008;
+
+    private final Map<String, DashboardSession> sessions = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final int maxPendingFrames;
+    private final long maxPendingBytes;
+    private final BackpressurePolicy policy;
+
+    private final AtomicLong slowConsumerEvents = new AtomicLong();
+    private final AtomicLong disconnectedSessions = new AtomicLong();
+
+    public DashboardHub(int maxPendingFrames, long maxPendingBytes, BackpressurePolicy policy, int senderThreads) {
+        this.maxPendingFrames = Math.max(1, maxPendingFrames);
+        this.maxPendingBytes = Math.max(1, maxPendingBytes);
+        this.policy = policy;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-sender-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public DashboardSession register(WsContext ctx, FrameEncoding encoding) {
+        DashboardSession session = new DashboardSession(ctx, encoding);
+        this.sessions.put(session.getSessionId(), session);
+        LOGGER.fine("Dashboard-Client registriert: " + session.getSessionId() + " (" + this.sessions.size() + " verbunden)");
+        return session;
+    }
+
+    public void unregister(WsContext ctx) {
+        if (this.sessions.remove(ctx.sessionId()) != null) {
+            LOGGER.fine("Dashboard-Client entfernt: " + ctx.sessionId() + " (" + this.sessions.size() + " verbunden)");
+        }
+    }
+
+    // The snapshot supplier is only invoked for sessions that are (or become) snapshot-only.
+    public void broadcast(EncodedFrame frame, Supplier<EncodedFrame> snapshot) {
+        for (DashboardSession session : this.sessions.values()) {
+            enqueue(session, frame, snapshot);
+        }
+    }
+
+    public void send(WsContext ctx, EncodedFrame snapshot) {
+        DashboardSession session = this.sessions.get(ctx.sessionId());
+        if (session != null) {
+            enqueue(session, snapshot, () -> snapshot);
+        }
+    }
+
+    public Collection<DashboardSession> getSessions() {
+        return this.sessions.values();
+    }
+
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+
+    public List<Map<String, Object>> getSessionMetrics() {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+        for (DashboardSession session : this.sessions.values()) {
+            metrics.add(session.getMetrics());
+        }
+        return metrics;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "sessions", this.sessions.size(),
+                "policy", this.policy,
+                "maxPendingFrames", this.maxPendingFrames,
+                "maxPendingBytes", this.maxPendingBytes,
+                "slowConsumerEvents", this.slowConsumerEvents.get(),
+                "disconnectedSessions", this.disconnectedSessions.get()
+        );
+    }
+
+    public void shutdown() {
+        this.sender.shutdownNow();
+        this.sessions.clear();
+    }
+
+    private void enqueue(DashboardSession session, EncodedFrame frame, Supplier<EncodedFrame> snapshot) {
+        if (session.isSnapshotOnly()) {
+            session.replaceSnapshot(snapshot.get());
+            scheduleDrain(session);
+            return;
+        }
+
+        session.offer(frame);
+        if (session.exceeds(this.maxPendingFrames, this.maxPendingBytes)) {
+            this.slowConsumerEvents.incrementAndGet();
+            switch (this.policy) {
+                case DROP_INTERMEDIATE -> session.dropOldest(this.maxPendingFrames, this.maxPendingBytes);
+                case SNAPSHOT_ONLY -> session.enterSnapshotOnly(snapshot.get());
+                case DISCONNECT -> {
+                    disconnect(session);
+                    return;
+                }
+            }
+        }
+        scheduleDrain(session);
+    }
+
+    // Closing may block on a congested socket, so it runs on a sender thread rather than the caller.
+    private void disconnect(DashboardSession session) {
+        this.sessions.remove(session.getSessionId());
+        if (!session.markClosed()) {
+            return;
+        }
+
+        this.disconnectedSessions.incrementAndGet();
+        LOGGER.warning("Dashboard-Client zu langsam, Verbindung wird getrennt: " + session.getSessionId() + " " + session.getMetrics());
+        this.sender.execute(() -> {
+            try {
+                session.getContext().closeSession(CLOSE_TOO_SLOW, "Client zu langsam");
+            } catch (Exception e) {
+                LOGGER.fine("Schließen des Dashboard-Clients fehlgeschlagen: " + e.getMessage());
+            }
+        });
+    }
+
+    private void scheduleDrain(DashboardSession session) {
+        if (session.tryStartDrain()) {
+            this.sender.execute(() -> drain(session));
+        }
+    }
+
+    // The drain flag stays set while a frame is in flight, so each session has at most one frame buffered in
+    // Jetty; everything else waits in the session queue, where the backpressure policy can still act on it.
+    private void drain(DashboardSession session) {
+        DashboardSession.QueuedFrame frame = session.poll();
+        if (frame == null) {
+            session.finishDrain();
+
+            // A producer may have enqueued between the last poll and finishDrain(); pick it up.
+            if (session.hasPendingFrames()) {
+                scheduleDrain(session);
+            }
+            return;
+        }
+
+        session.send(frame, () -> continueDrain(session), error -> {
+            LOGGER.warning("Senden an Dashboard-Client fehlgeschlagen: " + session.getSessionId() + " - " + error.getMessage());
+            this.sessions.remove(session.getSessionId());
+            session.finishDrain();
+        });
+    }
+
+    // Write callbacks run on Jetty threads, so the next frame is sent from a sender thread.
+    private void continueDrain(DashboardSession session) {
+        try {
+            this.sender.execute(() -> drain(session));
+        } catch (RejectedExecutionException e) {
+            session.finishDrain();
+        }
+    }
+}
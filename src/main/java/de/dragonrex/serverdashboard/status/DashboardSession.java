@@ -0,0 +1,207 @@
+package de.dragonrex.serverdashboard.status;
+
+import io.javalin.websocket.WsContext;
+import lombok.Getter;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class DashboardSession {
+    @Getter
+    private final String sessionId;
+    @Getter
+    private final WsContext context;
+    @Getter
+    private final FrameEncoding encoding;
+    @Getter
+    private final long connectedAt;
+
+    private final Deque<QueuedFrame> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicReference<EncodedFrame> pendingSnapshot = new AtomicReference<>();
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean snapshotOnly;
+    private volatile long inFlightSince;
+
+    private final AtomicLong sentFrames = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong snapshotOnlyActivations = new AtomicLong();
+    private volatile long lastSendMillis;
+    private volatile long maxSendMillis;
+
+    public DashboardSession(WsContext context, FrameEncoding encoding) {
+        this.sessionId = context.sessionId();
+        this.context = context;
+        this.encoding = encoding;
+        this.connectedAt = System.currentTimeMillis();
+    }
+
+    void offer(EncodedFrame frame) {
+        int size = frame.size(this.encoding);
+        this.queue.addLast(new QueuedFrame(frame, size, System.currentTimeMillis()));
+        this.queuedFrames.incrementAndGet();
+        this.pendingBytes.addAndGet(size);
+    }
+
+    boolean exceeds(int maxFrames, long maxBytes) {
+        return this.queuedFrames.get() > maxFrames || this.pendingBytes.get() > maxBytes;
+    }
+
+    // Discards the oldest (stalest) frames; the client notices the sequence gap and resyncs.
+    void dropOldest(int maxFrames, long maxBytes) {
+        while (exceeds(maxFrames, maxBytes)) {
+            QueuedFrame dropped = this.queue.pollFirst();
+            if (dropped == null) {
+                return;
+            }
+            this.queuedFrames.decrementAndGet();
+            this.pendingBytes.addAndGet(-dropped.size());
+            this.droppedFrames.incrementAndGet();
+        }
+    }
+
+    void enterSnapshotOnly(EncodedFrame snapshot) {
+        if (!this.snapshotOnly) {
+            this.snapshotOnly = true;
+            this.snapshotOnlyActivations.incrementAndGet();
+        }
+        dropOldest(0, 0);
+        replaceSnapshot(snapshot);
+    }
+
+    // In snapshot-only mode only the newest snapshot is kept; older ones are dropped unsent.
+    void replaceSnapshot(EncodedFrame snapshot) {
+        if (this.pendingSnapshot.getAndSet(snapshot) != null) {
+            this.droppedFrames.incrementAndGet();
+        }
+    }
+
+    // Pending snapshots always go out before queued deltas, which are newer than any snapshot they follow.
+    // A frame stays counted in pendingBytes and the lag until Jetty reports its write as finished.
+    QueuedFrame poll() {
+        EncodedFrame snapshot = this.pendingSnapshot.getAndSet(null);
+        if (snapshot != null) {
+            QueuedFrame queued = new QueuedFrame(snapshot, 0, System.currentTimeMillis());
+            this.inFlightSince = queued.enqueuedAt();
+            return queued;
+        }
+
+        QueuedFrame queued = this.queue.pollFirst();
+        if (queued == null) {
+            // Caught up: switch back to deltas, the last snapshot carried the current sequence.
+            this.snapshotOnly = false;
+            return null;
+        }
+        this.queuedFrames.decrementAndGet();
+        this.inFlightSince = queued.enqueuedAt();
+        return queued;
+    }
+
+    // Non-blocking write; exactly one of onSent/onFailed runs once Jetty has written or given up on the frame.
+    void send(QueuedFrame queued, Runnable onSent, Consumer<Throwable> onFailed) {
+        long start = System.currentTimeMillis();
+        AtomicBoolean completed = new AtomicBoolean();
+        WriteCallback callback = new WriteCallback() {
+            @Override
+            public void writeSuccess() {
+                if (!completed.compareAndSet(false, true)) {
+                    return;
+                }
+                release(queued);
+                long duration = System.currentTimeMillis() - start;
+                lastSendMillis = duration;
+                maxSendMillis = Math.max(maxSendMillis, duration);
+                sentFrames.incrementAndGet();
+                sentBytes.addAndGet(queued.frame().size(encoding));
+                onSent.run();
+            }
+
+            @Override
+            public void writeFailed(Throwable error) {
+                if (!completed.compareAndSet(false, true)) {
+                    return;
+                }
+                release(queued);
+                onFailed.accept(error);
+            }
+        };
+
+        try {
+            RemoteEndpoint remote = this.context.session.getRemote();
+            if (this.encoding == FrameEncoding.CBOR) {
+                remote.sendBytes(queued.frame().binary(), callback);
+            } else {
+                remote.sendString(queued.frame().text(), callback);
+            }
+        } catch (RuntimeException e) {
+            callback.writeFailed(e);
+        }
+    }
+
+    private void release(QueuedFrame queued) {
+        this.pendingBytes.addAndGet(-queued.size());
+        this.inFlightSince = 0;
+    }
+
+    boolean tryStartDrain() {
+        return this.draining.compareAndSet(false, true);
+    }
+
+    void finishDrain() {
+        this.draining.set(false);
+    }
+
+    boolean hasPendingFrames() {
+        return this.pendingSnapshot.get() != null || !this.queue.isEmpty();
+    }
+
+    boolean markClosed() {
+        return this.closed.compareAndSet(false, true);
+    }
+
+    public boolean isSnapshotOnly() {
+        return this.snapshotOnly;
+    }
+
+    public long getLagMillis() {
+        long oldest = this.inFlightSince;
+        QueuedFrame head = this.queue.peekFirst();
+        if (oldest == 0 && head != null) {
+            oldest = head.enqueuedAt();
+        }
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("sessionId", this.sessionId);
+        metrics.put("encoding", this.encoding);
+        metrics.put("connectedAt", this.connectedAt);
+        metrics.put("queuedFrames", this.queuedFrames.get());
+        metrics.put("pendingBytes", this.pendingBytes.get());
+        metrics.put("lagMillis", getLagMillis());
+        metrics.put("snapshotOnly", this.snapshotOnly);
+        metrics.put("snapshotOnlyActivations", this.snapshotOnlyActivations.get());
+        metrics.put("sentFrames", this.sentFrames.get());
+        metrics.put("sentBytes", this.sentBytes.get());
+        metrics.put("droppedFrames", this.droppedFrames.get());
+        metrics.put("lastSendMillis", this.lastSendMillis);
+        metrics.put("maxSendMillis", this.maxSendMillis);
+        return metrics;
+    }
+
+    record QueuedFrame(EncodedFrame frame, int size, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,58 @@
+package de.dragonrex.serverdashboard.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Encodes its payload at most once per encoding; the result is shared by every receiver.
+public final class EncodedFrame {
+    private final Object payload;
+    private final FrameEncoder encoder;
+    private volatile String text;
+    private volatile byte[] binary;
+    private volatile int textSize = -1;
+
+    EncodedFrame(Object payload, FrameEncoder encoder) {
+        this.payload = payload;
+        this.encoder = encoder;
+    }
+
+    public String text() {
+        String encoded = this.text;
+        if (encoded == null) {
+            encoded = this.encoder.toJson(this.payload);
+            this.text = encoded;
+        }
+        return encoded;
+    }
+
+    public int size(FrameEncoding encoding) {
+        if (encoding == FrameEncoding.CBOR) {
+            return binaryBytes().length;
+        }
+        int size = this.textSize;
+        if (size < 0) {
+            size = text().getBytes(StandardCharsets.UTF_8).length;
+            this.textSize = size;
+        }
+        return size;
+    }
+
+    public ByteBuffer binary() {
+        return ByteBuffer.wrap(binaryBytes()).asReadOnlyBuffer();
+    }
+
+    public InputStream binaryStream() {
+        return new ByteArrayInputStream(binaryBytes());
+    }
+
+    private byte[] binaryBytes() {
+        byte[] encoded = this.binary;
+        if (encoded == null) {
+            encoded = this.encoder.toCbor(this.payload);
+            this.binary = encoded;
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,31 @@
+package de.dragonrex.serverdashboard.status;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.javalin.json.JavalinJackson;
+
+public class FrameEncoder {
+    private final ObjectMapper jsonMapper = JavalinJackson.defaultMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    public EncodedFrame encode(Object payload) {
+        return new EncodedFrame(payload, this);
+    }
+
+    String toJson(Object payload) {
+        try {
+            return this.jsonMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize status frame as JSON", e);
+        }
+    }
+
+    byte[] toCbor(Object payload) {
+        try {
+            return this.cborMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize status frame as CBOR", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package de.dragonrex.serverdashboard.status;
+
+public enum FrameEncoding {
+    JSON,
+    CBOR;
+
+    public static FrameEncoding fromParam(String value) {
+        return "cbor".equalsIgnoreCase(value) ? CBOR : JSON;
+    }
+}
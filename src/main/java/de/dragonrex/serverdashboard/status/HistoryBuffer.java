@@ -0,0 +1,90 @@
+package de.dragonrex.serverdashboard.status;
+
+// Fixed-size ring of samples kept in parallel primitive arrays, so recording never allocates.
+public class HistoryBuffer {
+    private final long[] timestamps;
+    private final int[] currentPlayers;
+    private final int[] maxPlayers;
+    private final int capacity;
+    private final long resolutionMillis;
+
+    private int head;
+    private int size;
+
+    public HistoryBuffer(int capacity, long resolutionMillis) {
+        this.capacity = capacity;
+        this.resolutionMillis = Math.max(1, resolutionMillis);
+        this.timestamps = new long[capacity];
+        this.currentPlayers = new int[capacity];
+        this.maxPlayers = new int[capacity];
+    }
+
+    // True if a new slot was started; false if the sample replaced the latest one of the same bucket.
+    public synchronized boolean record(long timestamp, int current, int max) {
+        if (this.size > 0) {
+            int last = physicalIndex(this.size - 1);
+            if (timestamp < this.timestamps[last]) {
+                return false;
+            }
+            if (timestamp / this.resolutionMillis == this.timestamps[last] / this.resolutionMillis) {
+                this.timestamps[last] = timestamp;
+                this.currentPlayers[last] = current;
+                this.maxPlayers[last] = max;
+                return false;
+            }
+        }
+
+        this.timestamps[this.head] = timestamp;
+        this.currentPlayers[this.head] = current;
+        this.maxPlayers[this.head] = max;
+        this.head = (this.head + 1) % this.capacity;
+        if (this.size < this.capacity) {
+            this.size++;
+        }
+        return true;
+    }
+
+    public synchronized HistorySlice range(String serverId, long from, long to) {
+        int start = lowerBound(from);
+        int end = to == Long.MAX_VALUE ? this.size : lowerBound(to + 1);
+        int count = Math.max(0, end - start);
+
+        long[] sliceTimestamps = new long[count];
+        int[] sliceCurrentPlayers = new int[count];
+        int[] sliceMaxPlayers = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = physicalIndex(start + i);
+            sliceTimestamps[i] = this.timestamps[index];
+            sliceCurrentPlayers[i] = this.currentPlayers[index];
+            sliceMaxPlayers[i] = this.maxPlayers[index];
+        }
+        return new HistorySlice(serverId, sliceTimestamps, sliceCurrentPlayers, sliceMaxPlayers);
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    // First logical position whose timestamp is >= the given value.
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.timestamps[physicalIndex(mid)] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int physicalIndex(int logicalIndex) {
+        return (this.head - this.size + logicalIndex + this.capacity) % this.capacity;
+    }
+}
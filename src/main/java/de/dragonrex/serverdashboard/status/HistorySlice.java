@@ -0,0 +1,4 @@
+package de.dragonrex.serverdashboard.status;
+
+public record HistorySlice(String serverId, long[] timestamps, int[] currentPlayers, int[] maxPlayers) {
+}
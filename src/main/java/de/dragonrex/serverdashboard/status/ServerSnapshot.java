@@ -0,0 +1,35 @@
+package de.dragonrex.serverdashboard.status;
+
+import de.dragonrex.serverdashboard.models.ServerStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public record ServerSnapshot(String serverId, long version, long updatedAt, String serverName, int currentPlayers, int maxPlayers) {
+
+    static ServerSnapshot of(String serverId, long version, ServerStatus status) {
+        return new ServerSnapshot(
+                serverId,
+                version,
+                System.currentTimeMillis(),
+                status.getServerName(),
+                status.getCurrentPlayers(),
+                status.getMaxPlayers()
+        );
+    }
+
+    public Map<String, Object> diff(ServerSnapshot previous) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (previous == null || !Objects.equals(previous.serverName, this.serverName)) {
+            changes.put("serverName", this.serverName);
+        }
+        if (previous == null || previous.currentPlayers != this.currentPlayers) {
+            changes.put("currentPlayers", this.currentPlayers);
+        }
+        if (previous == null || previous.maxPlayers != this.maxPlayers) {
+            changes.put("maxPlayers", this.maxPlayers);
+        }
+        return changes;
+    }
+}
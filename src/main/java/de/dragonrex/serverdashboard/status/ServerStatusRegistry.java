@@ -0,0 +1,70 @@
+package de.dragonrex.serverdashboard.status;
+
+import de.dragonrex.serverdashboard.models.ServerStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ServerStatusRegistry {
+    private final ConcurrentHashMap<String, ServerSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    // Completed and replaced on every version bump; long-polling readers chain onto it.
+    private final AtomicReference<CompletableFuture<Long>> versionChanged = new AtomicReference<>(new CompletableFuture<>());
+
+    public StatusChange update(String serverId, ServerStatus status) {
+        ServerSnapshot[] previous = new ServerSnapshot[1];
+        ServerSnapshot current = this.snapshots.compute(serverId, (id, existing) -> {
+            previous[0] = existing;
+            return ServerSnapshot.of(id, existing == null ? 1 : existing.version() + 1, status);
+        });
+        // Bumped after the snapshot is visible, so a reader never pairs a new version with old data.
+        signalVersionChange(this.version.incrementAndGet());
+        return new StatusChange(previous[0], current);
+    }
+
+    public boolean remove(String serverId) {
+        if (this.snapshots.remove(serverId) != null) {
+            signalVersionChange(this.version.incrementAndGet());
+            return true;
+        }
+        return false;
+    }
+
+    public Optional<ServerSnapshot> get(String serverId) {
+        return Optional.ofNullable(this.snapshots.get(serverId));
+    }
+
+    public List<ServerSnapshot> getAll() {
+        List<ServerSnapshot> result = new ArrayList<>(this.snapshots.values());
+        result.sort(Comparator.comparing(ServerSnapshot::serverId));
+        return result;
+    }
+
+    public int size() {
+        return this.snapshots.size();
+    }
+
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    public CompletableFuture<Long> awaitVersion(long minVersion) {
+        // Grab the future before checking, so a bump between the two still completes it.
+        CompletableFuture<Long> next = this.versionChanged.get();
+        long current = this.version.get();
+        if (current >= minVersion) {
+            return CompletableFuture.completedFuture(current);
+        }
+        return next.thenCompose(changed -> awaitVersion(minVersion));
+    }
+
+    private void signalVersionChange(long newVersion) {
+        this.versionChanged.getAndSet(new CompletableFuture<>()).complete(newVersion);
+    }
+}
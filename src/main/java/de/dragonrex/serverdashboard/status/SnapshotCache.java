@@ -0,0 +1,95 @@
+package de.dragonrex.serverdashboard.status;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SnapshotCache {
+    private final ServerStatusRegistry registry;
+    private final FrameEncoder encoder;
+
+    private final AtomicReference<CachedFrame> dashboardSnapshot = new AtomicReference<>();
+    private final AtomicReference<CachedFrame> registrySnapshot = new AtomicReference<>();
+    private final ConcurrentHashMap<String, CachedFrame> serverSnapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SnapshotCache(ServerStatusRegistry registry, FrameEncoder encoder) {
+        this.registry = registry;
+        this.encoder = encoder;
+    }
+
+    // The version is read before the servers, so cached data is never older than its version label.
+    public EncodedFrame dashboardSnapshot(long sequence) {
+        long version = this.registry.getVersion();
+        CachedFrame cached = this.dashboardSnapshot.get();
+        if (cached != null && cached.version() == version && cached.sequence() == sequence) {
+            this.hits.incrementAndGet();
+            return cached.frame();
+        }
+
+        this.misses.incrementAndGet();
+        EncodedFrame frame = this.encoder.encode(Map.of(
+                "type", "snapshot",
+                "seq", sequence,
+                "version", version,
+                "servers", this.registry.getAll()
+        ));
+        this.dashboardSnapshot.set(new CachedFrame(version, sequence, frame));
+        return frame;
+    }
+
+    public VersionedFrame registrySnapshot() {
+        long version = this.registry.getVersion();
+        CachedFrame cached = this.registrySnapshot.get();
+        if (cached != null && cached.version() == version) {
+            this.hits.incrementAndGet();
+            return new VersionedFrame(version, cached.frame());
+        }
+
+        this.misses.incrementAndGet();
+        EncodedFrame frame = this.encoder.encode(Map.of(
+                "version", version,
+                "servers", this.registry.getAll()
+        ));
+        this.registrySnapshot.set(new CachedFrame(version, 0, frame));
+        return new VersionedFrame(version, frame);
+    }
+
+    public Optional<EncodedFrame> serverSnapshot(String serverId) {
+        Optional<ServerSnapshot> snapshot = this.registry.get(serverId);
+        if (snapshot.isEmpty()) {
+            this.serverSnapshots.remove(serverId);
+            return Optional.empty();
+        }
+
+        long version = snapshot.get().version();
+        CachedFrame cached = this.serverSnapshots.get(serverId);
+        if (cached != null && cached.version() == version) {
+            this.hits.incrementAndGet();
+            return Optional.of(cached.frame());
+        }
+
+        this.misses.incrementAndGet();
+        EncodedFrame frame = this.encoder.encode(snapshot.get());
+        this.serverSnapshots.put(serverId, new CachedFrame(version, 0, frame));
+        return Optional.of(frame);
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public record VersionedFrame(long version, EncodedFrame frame) {
+    }
+
+    private record CachedFrame(long version, long sequence, EncodedFrame frame) {
+    }
+}
@@ -0,0 +1,4 @@
+package de.dragonrex.serverdashboard.status;
+
+public record StatusChange(ServerSnapshot previous, ServerSnapshot current) {
+}
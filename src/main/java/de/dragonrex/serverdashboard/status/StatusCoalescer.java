@@ -0,0 +1,103 @@
+package de.dragonrex.serverdashboard.status;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class StatusCoalescer {
+    private static final Logger LOGGER = Logger.getLogger(StatusCoalescer.class.getName());
+
+    private final ServerStatusRegistry registry;
+    private final StatusPublisher publisher;
+    private final long tickIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final Set<String> dirtyServers = ConcurrentHashMap.newKeySet();
+    // Only touched by the tick thread.
+    private final Map<String, ServerSnapshot> published = new HashMap<>();
+
+    private final AtomicLong receivedUpdates = new AtomicLong();
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+    private final AtomicLong publishedUpdates = new AtomicLong();
+
+    public StatusCoalescer(ServerStatusRegistry registry, StatusPublisher publisher, long tickIntervalMillis) {
+        this.registry = registry;
+        this.publisher = publisher;
+        this.tickIntervalMillis = tickIntervalMillis;
+
+        if (tickIntervalMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "status-coalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleAtFixedRate(this::tick, tickIntervalMillis, tickIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public void submit(StatusChange change) {
+        this.receivedUpdates.incrementAndGet();
+
+        if (this.scheduler == null) {
+            this.publisher.publish(change);
+            this.publishedUpdates.incrementAndGet();
+            return;
+        }
+
+        // Latest wins: a server that is already dirty is published once with its newest snapshot.
+        if (!this.dirtyServers.add(change.current().serverId())) {
+            this.coalescedUpdates.incrementAndGet();
+        }
+    }
+
+    private void tick() {
+        try {
+            Iterator<String> iterator = this.dirtyServers.iterator();
+            while (iterator.hasNext()) {
+                String serverId = iterator.next();
+                iterator.remove();
+
+                ServerSnapshot previous = this.published.get(serverId);
+                this.registry.get(serverId).ifPresentOrElse(current -> {
+                    this.publisher.publish(new StatusChange(previous, current));
+                    this.published.put(serverId, current);
+                    this.publishedUpdates.incrementAndGet();
+                }, () -> this.published.remove(serverId));
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Fehler beim Veröffentlichen der Status-Updates", e);
+        }
+    }
+
+    public long getTickIntervalMillis() {
+        return this.tickIntervalMillis;
+    }
+
+    public long getReceivedUpdates() {
+        return this.receivedUpdates.get();
+    }
+
+    public long getCoalescedUpdates() {
+        return this.coalescedUpdates.get();
+    }
+
+    public long getPublishedUpdates() {
+        return this.publishedUpdates.get();
+    }
+
+    public void shutdown() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.dragonrex.serverdashboard.status;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class StatusHistory {
+    private final ConcurrentHashMap<String, HistoryBuffer> buffers = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final long resolutionMillis;
+
+    public StatusHistory(int capacity, long resolutionMillis) {
+        this.capacity = Math.max(1, capacity);
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    public boolean record(ServerSnapshot snapshot) {
+        return record(snapshot.serverId(), snapshot.updatedAt(), snapshot.currentPlayers(), snapshot.maxPlayers());
+    }
+
+    public boolean record(String serverId, long timestamp, int currentPlayers, int maxPlayers) {
+        return this.buffers
+                .computeIfAbsent(serverId, id -> new HistoryBuffer(this.capacity, this.resolutionMillis))
+                .record(timestamp, currentPlayers, maxPlayers);
+    }
+
+    public Optional<HistorySlice> range(String serverId, long from, long to) {
+        HistoryBuffer buffer = this.buffers.get(serverId);
+        return buffer == null ? Optional.empty() : Optional.of(buffer.range(serverId, from, to));
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public long getResolutionMillis() {
+        return this.resolutionMillis;
+    }
+}
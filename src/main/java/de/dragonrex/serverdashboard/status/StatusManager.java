@@ -0,0 +1,119 @@
+package de.dragonrex.serverdashboard.status;
+
+import de.dragonrex.serverdashboard.config.AppConfig;
+import de.dragonrex.serverdashboard.database.processor.IProcessor;
+import de.dragonrex.serverdashboard.models.ServerStatus;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Getter
+public class StatusManager {
+    private static final Logger LOGGER = Logger.getLogger(StatusManager.class.getName());
+
+    private final ServerStatusRegistry registry;
+    private final FrameEncoder frameEncoder;
+    private final SnapshotCache snapshotCache;
+    private final StatusPublisher publisher;
+    private final StatusCoalescer coalescer;
+    private final StatusHistory history;
+    private final StatusSampleWriter sampleWriter;
+    private final DashboardHub dashboardHub;
+    // Latest sample of each server's open history bucket, not yet handed to the sample writer.
+    private final Map<String, ServerSnapshot> openSamples = new ConcurrentHashMap<>();
+
+    public StatusManager(AppConfig appConfig, DashboardHub dashboardHub, IProcessor processor) {
+        this.dashboardHub = dashboardHub;
+        this.registry = new ServerStatusRegistry();
+        this.frameEncoder = new FrameEncoder();
+        this.snapshotCache = new SnapshotCache(this.registry, this.frameEncoder);
+        this.publisher = new StatusPublisher(dashboardHub, this.frameEncoder, this.snapshotCache);
+        this.coalescer = new StatusCoalescer(this.registry, this.publisher, appConfig.getDashboardTickIntervalMillis());
+        this.history = new StatusHistory(appConfig.getHistoryCapacity(), appConfig.getHistoryResolutionMillis());
+        this.sampleWriter = appConfig.isHistoryPersistenceEnabled() ? new StatusSampleWriter(
+                processor,
+                appConfig.getHistoryQueueCapacity(),
+                appConfig.getHistoryBatchSize(),
+                appConfig.getHistoryFlushIntervalMillis(),
+                TimeUnit.HOURS.toMillis(appConfig.getHistoryRawRetentionHours()),
+                TimeUnit.DAYS.toMillis(appConfig.getHistoryMinuteRetentionDays()),
+                TimeUnit.DAYS.toMillis(appConfig.getHistoryHourRetentionDays())
+        ) : null;
+
+        restoreHistory();
+    }
+
+    public ServerSnapshot ingest(String serverId, ServerStatus status) {
+        StatusChange change = this.registry.update(serverId, status);
+        this.coalescer.submit(change);
+        ServerSnapshot current = change.current();
+        if (this.sampleWriter == null) {
+            this.history.record(current);
+            return current;
+        }
+
+        // The history slot keeps the latest sample of its bucket, so that is the one persisted: a bucket's
+        // sample is written once the next bucket opens. compute() serializes this per server.
+        this.openSamples.compute(serverId, (id, open) -> {
+            boolean opened = this.history.record(current);
+            if (open != null && current.updatedAt() < open.updatedAt()) {
+                return open;
+            }
+            if (opened && open != null) {
+                this.sampleWriter.offer(open);
+            }
+            return current;
+        });
+        return current;
+    }
+
+    private void restoreHistory() {
+        if (this.sampleWriter == null) {
+            return;
+        }
+
+        long since = System.currentTimeMillis() - (long) this.history.getCapacity() * this.history.getResolutionMillis();
+        try {
+            long restored = this.sampleWriter.restore(this.history, since);
+            if (restored > 0) {
+                LOGGER.info("Status-Historie wiederhergestellt: " + restored + " Einträge");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Status-Historie konnte nicht wiederhergestellt werden", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("servers", this.registry.size());
+        stats.put("version", this.registry.getVersion());
+        stats.put("dashboardClients", this.dashboardHub.getSessionCount());
+        stats.put("tickIntervalMillis", this.coalescer.getTickIntervalMillis());
+        stats.put("receivedUpdates", this.coalescer.getReceivedUpdates());
+        stats.put("coalescedUpdates", this.coalescer.getCoalescedUpdates());
+        stats.put("publishedUpdates", this.coalescer.getPublishedUpdates());
+        stats.put("snapshotCacheHits", this.snapshotCache.getHits());
+        stats.put("snapshotCacheMisses", this.snapshotCache.getMisses());
+        if (this.sampleWriter != null) {
+            stats.put("queuedSamples", this.sampleWriter.getQueuedSamples());
+            stats.put("writtenSamples", this.sampleWriter.getWrittenSamples());
+            stats.put("droppedSamples", this.sampleWriter.getDroppedSamples());
+            stats.put("failedSampleBatches", this.sampleWriter.getFailedBatches());
+        }
+        return stats;
+    }
+
+    public void shutdown() {
+        this.coalescer.shutdown();
+        if (this.sampleWriter != null) {
+            this.openSamples.values().forEach(this.sampleWriter::offer);
+            this.openSamples.clear();
+            this.sampleWriter.shutdown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package de.dragonrex.serverdashboard.status;
+
+import io.javalin.websocket.WsContext;
+
+import java.util.Map;
+
+public class StatusPublisher {
+    private final DashboardHub dashboardHub;
+    private final FrameEncoder encoder;
+    private final SnapshotCache snapshotCache;
+
+    // Guarded by "this": sequence assignment and enqueueing happen together, so every
+    // session queue receives frames in sequence order and a gap always means a dropped frame.
+    private long sequence;
+
+    public StatusPublisher(DashboardHub dashboardHub, FrameEncoder encoder, SnapshotCache snapshotCache) {
+        this.dashboardHub = dashboardHub;
+        this.encoder = encoder;
+        this.snapshotCache = snapshotCache;
+    }
+
+    public synchronized void publish(StatusChange change) {
+        Map<String, Object> changes = change.current().diff(change.previous());
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        this.sequence++;
+        this.dashboardHub.broadcast(this.encoder.encode(Map.of(
+                "type", "delta",
+                "seq", this.sequence,
+                "serverId", change.current().serverId(),
+                "version", change.current().version(),
+                "changes", changes
+        )), () -> this.snapshotCache.dashboardSnapshot(this.sequence));
+    }
+
+    public synchronized void sendSnapshot(WsContext ctx) {
+        this.dashboardHub.send(ctx, this.snapshotCache.dashboardSnapshot(this.sequence));
+    }
+
+    public synchronized long getSequence() {
+        return this.sequence;
+    }
+}
@@ -0,0 +1,348 @@
+package de.dragonrex.serverdashboard.status;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import de.dragonrex.serverdashboard.database.processor.AbstractSQLProcessor;
+import de.dragonrex.serverdashboard.database.processor.IProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoQuery;
+import de.dragonrex.serverdashboard.database.processor.SQLDialect;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class StatusSampleWriter {
+    private static final Logger LOGGER = Logger.getLogger(StatusSampleWriter.class.getName());
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final String RAW_TABLE = "status_samples";
+    private static final String MINUTE_TABLE = "status_samples_minute";
+    private static final String HOUR_TABLE = "status_samples_hour";
+
+    private final IProcessor processor;
+    private final MongoProcessor mongoProcessor;
+    private final boolean mongo;
+    private final String rollupMinuteQuery;
+    private final String rollupHourQuery;
+    private final BlockingQueue<StatusSample> queue;
+    private final int batchSize;
+    private final long rawRetentionMillis;
+    private final long minuteRetentionMillis;
+    private final long hourRetentionMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // Only touched by the writer thread.
+    private final Map<String, RollupBucket> minuteBuckets = new HashMap<>();
+    private final Map<String, RollupBucket> hourBuckets = new HashMap<>();
+
+    private final AtomicLong writtenSamples = new AtomicLong();
+    private final AtomicLong droppedSamples = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    public StatusSampleWriter(IProcessor processor, int queueCapacity, int batchSize, long flushIntervalMillis,
+                              long rawRetentionMillis, long minuteRetentionMillis, long hourRetentionMillis) {
+        this.processor = processor;
+        this.mongoProcessor = processor.unwrap(MongoProcessor.class).orElse(null);
+        this.mongo = this.mongoProcessor != null;
+        SQLDialect dialect = processor.unwrap(AbstractSQLProcessor.class).map(AbstractSQLProcessor::getDialect).orElse(null);
+        this.rollupMinuteQuery = dialect != null ? rollupQuery(dialect, MINUTE_TABLE) : null;
+        this.rollupHourQuery = dialect != null ? rollupQuery(dialect, HOUR_TABLE) : null;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.rawRetentionMillis = rawRetentionMillis;
+        this.minuteRetentionMillis = minuteRetentionMillis;
+        this.hourRetentionMillis = hourRetentionMillis;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-sample-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(() -> flush(false), flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::applyRetention, 1, 10, TimeUnit.MINUTES);
+    }
+
+    // Never blocks the ingest thread; samples are dropped when the database cannot keep up.
+    public void offer(ServerSnapshot snapshot) {
+        StatusSample sample = new StatusSample(snapshot.serverId(), snapshot.updatedAt(), snapshot.currentPlayers(), snapshot.maxPlayers());
+        if (!this.queue.offer(sample)) {
+            this.droppedSamples.incrementAndGet();
+        }
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdown();
+        try {
+            this.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Open buckets are written too; a bucket continued after a restart is merged into the same row.
+        flush(true);
+    }
+
+    // Streams persisted samples back into the in-memory history, one row at a time.
+    public long restore(StatusHistory history, long since) {
+        if (this.mongo) {
+            return mongoProcessor.forEachRow(MongoQuery.of(RAW_TABLE, Filters.gte("sampledAt", since))
+                            .withSort(Sorts.ascending("serverId", "sampledAt")),
+                    cursor -> history.record(
+                            cursor.getString("serverId"),
+                            cursor.getLong("sampledAt"),
+                            cursor.getInt("currentPlayers"),
+                            cursor.getInt("maxPlayers")));
+        }
+
+        return this.processor.forEachRow(
+                "SELECT server_id, sampled_at, current_players, max_players FROM " + RAW_TABLE
+                        + " WHERE sampled_at >= ? ORDER BY server_id, sampled_at",
+                cursor -> history.record(
+                        cursor.getString("server_id"),
+                        cursor.getLong("sampled_at"),
+                        cursor.getInt("current_players"),
+                        cursor.getInt("max_players")),
+                since);
+    }
+
+    public long export(String serverId, long from, long to, Consumer<StatusSample> consumer) {
+        if (this.mongo) {
+            return mongoProcessor.forEachRow(MongoQuery.of(RAW_TABLE, Filters.and(
+                            Filters.eq("serverId", serverId),
+                            Filters.gte("sampledAt", from),
+                            Filters.lte("sampledAt", to)))
+                            .withSort(Sorts.ascending("sampledAt")),
+                    cursor -> consumer.accept(new StatusSample(serverId, cursor.getLong("sampledAt"), cursor.getInt("currentPlayers"), cursor.getInt("maxPlayers"))));
+        }
+
+        return this.processor.forEachRow(
+                "SELECT sampled_at, current_players, max_players FROM " + RAW_TABLE
+                        + " WHERE server_id = ? AND sampled_at >= ? AND sampled_at <= ? ORDER BY sampled_at",
+                cursor -> consumer.accept(new StatusSample(serverId, cursor.getLong("sampled_at"), cursor.getInt("current_players"), cursor.getInt("max_players"))),
+                serverId, from, to);
+    }
+
+    public long getQueuedSamples() {
+        return this.queue.size();
+    }
+
+    public long getWrittenSamples() {
+        return this.writtenSamples.get();
+    }
+
+    public long getDroppedSamples() {
+        return this.droppedSamples.get();
+    }
+
+    public long getFailedBatches() {
+        return this.failedBatches.get();
+    }
+
+    private void flush(boolean closeAll) {
+        try {
+            List<StatusSample> batch = new ArrayList<>(this.batchSize);
+            List<RollupBucket> closedMinutes = new ArrayList<>();
+            List<RollupBucket> closedHours = new ArrayList<>();
+
+            while (this.queue.drainTo(batch, this.batchSize) > 0) {
+                writeSamples(batch);
+                for (StatusSample sample : batch) {
+                    accumulate(this.minuteBuckets, sample, MINUTE_MILLIS, closedMinutes);
+                    accumulate(this.hourBuckets, sample, HOUR_MILLIS, closedHours);
+                }
+                batch.clear();
+            }
+
+            long now = closeAll ? Long.MAX_VALUE : System.currentTimeMillis();
+            closeExpiredBuckets(this.minuteBuckets, now, closedMinutes);
+            closeExpiredBuckets(this.hourBuckets, now, closedHours);
+            writeRollups(MINUTE_TABLE, closedMinutes);
+            writeRollups(HOUR_TABLE, closedHours);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Fehler beim Schreiben der Status-Historie", e);
+        }
+    }
+
+    private void writeSamples(List<StatusSample> samples) {
+        List<Object[]> batchArgs = new ArrayList<>(samples.size());
+        for (StatusSample sample : samples) {
+            if (this.mongo) {
+                batchArgs.add(new Object[]{"INSERT", new Document("serverId", sample.serverId())
+                        .append("sampledAt", sample.sampledAt())
+                        .append("currentPlayers", sample.currentPlayers())
+                        .append("maxPlayers", sample.maxPlayers())});
+            } else {
+                batchArgs.add(new Object[]{sample.serverId(), sample.sampledAt(), sample.currentPlayers(), sample.maxPlayers()});
+            }
+        }
+
+        if (executeBatch(this.mongo ? RAW_TABLE
+                : "INSERT INTO " + RAW_TABLE + " (server_id, sampled_at, current_players, max_players) VALUES (?, ?, ?, ?)", batchArgs)) {
+            this.writtenSamples.addAndGet(samples.size());
+        }
+    }
+
+    // A bucket can be closed more than once, e.g. for late samples or across a restart; every write is
+    // merged into the existing row instead of colliding with its primary key.
+    private void writeRollups(String table, List<RollupBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        if (this.mongo) {
+            List<UpdateOneModel<Document>> models = new ArrayList<>(buckets.size());
+            for (RollupBucket bucket : buckets) {
+                models.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("serverId", bucket.serverId), Filters.eq("bucketStart", bucket.bucketStart)),
+                        List.of(mergeRollup(bucket)),
+                        new UpdateOptions().upsert(true)));
+            }
+            try {
+                this.processor.guardWrite(() -> this.mongoProcessor.bulkWrite(table, models));
+            } catch (Exception e) {
+                this.failedBatches.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Batch mit " + models.size() + " Einträgen konnte nicht geschrieben werden", e);
+            }
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(buckets.size());
+        for (RollupBucket bucket : buckets) {
+            double averagePlayers = (double) bucket.playerSum / bucket.samples;
+            batchArgs.add(new Object[]{bucket.serverId, bucket.bucketStart, bucket.samples, averagePlayers, bucket.peakPlayers, bucket.maxPlayers});
+        }
+        executeBatch(MINUTE_TABLE.equals(table) ? this.rollupMinuteQuery : this.rollupHourQuery, batchArgs);
+    }
+
+    // Sample-weighted average and maxima of the stored and the new bucket; avg_players is assigned before
+    // samples because MySQL evaluates the assignments in order.
+    private static String rollupQuery(SQLDialect dialect, String table) {
+        Map<String, String> merge = new LinkedHashMap<>();
+        merge.put("avg_players", "(" + table + ".avg_players * " + table + ".samples + " + dialect.newValue("avg_players")
+                + " * " + dialect.newValue("samples") + ") / (" + table + ".samples + " + dialect.newValue("samples") + ")");
+        merge.put("peak_players", greatest(table + ".peak_players", dialect.newValue("peak_players")));
+        merge.put("max_players", greatest(table + ".max_players", dialect.newValue("max_players")));
+        merge.put("samples", table + ".samples + " + dialect.newValue("samples"));
+        return dialect.upsert(table, List.of("server_id", "bucket_start"),
+                List.of("server_id", "bucket_start", "samples", "avg_players", "peak_players", "max_players"), merge);
+    }
+
+    // SQLite has no GREATEST().
+    private static String greatest(String left, String right) {
+        return "CASE WHEN " + left + " > " + right + " THEN " + left + " ELSE " + right + " END";
+    }
+
+    // One $set stage sees the stored document as it was, so the assignments do not depend on their order.
+    private static Document mergeRollup(RollupBucket bucket) {
+        Document storedSamples = new Document("$ifNull", List.of("$samples", 0));
+        Document storedAverage = new Document("$ifNull", List.of("$avgPlayers", 0));
+        Document totalSamples = new Document("$add", List.of(storedSamples, bucket.samples));
+        return new Document("$set", new Document("avgPlayers", new Document("$divide", List.of(
+                new Document("$add", List.of(new Document("$multiply", List.of(storedAverage, storedSamples)), bucket.playerSum)),
+                totalSamples)))
+                .append("samples", totalSamples)
+                .append("peakPlayers", new Document("$max", List.of("$peakPlayers", bucket.peakPlayers)))
+                .append("maxPlayers", new Document("$max", List.of("$maxPlayers", bucket.maxPlayers))));
+    }
+
+    private boolean executeBatch(String query, List<Object[]> batchArgs) {
+        try {
+            this.processor.batchUpdate(query, batchArgs);
+            return true;
+        } catch (Exception e) {
+            this.failedBatches.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Batch mit " + batchArgs.size() + " Einträgen konnte nicht geschrieben werden", e);
+            return false;
+        }
+    }
+
+    private void accumulate(Map<String, RollupBucket> buckets, StatusSample sample, long bucketMillis, List<RollupBucket> closed) {
+        long bucketStart = sample.sampledAt() - (sample.sampledAt() % bucketMillis);
+        RollupBucket bucket = buckets.get(sample.serverId());
+        if (bucket != null && bucket.bucketStart > bucketStart) {
+            return;
+        }
+        if (bucket == null || bucket.bucketStart != bucketStart) {
+            if (bucket != null) {
+                closed.add(bucket);
+            }
+            bucket = new RollupBucket(sample.serverId(), bucketStart, bucketMillis);
+            buckets.put(sample.serverId(), bucket);
+        }
+        bucket.add(sample);
+    }
+
+    // Buckets of servers that stopped reporting are closed once their time window has passed.
+    private void closeExpiredBuckets(Map<String, RollupBucket> buckets, long now, List<RollupBucket> closed) {
+        Iterator<RollupBucket> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            RollupBucket bucket = iterator.next();
+            if (bucket.bucketStart + bucket.bucketMillis <= now) {
+                closed.add(bucket);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void applyRetention() {
+        long now = System.currentTimeMillis();
+        try {
+            deleteOlderThan(RAW_TABLE, this.mongo ? "sampledAt" : "sampled_at", now - this.rawRetentionMillis);
+            deleteOlderThan(MINUTE_TABLE, this.mongo ? "bucketStart" : "bucket_start", now - this.minuteRetentionMillis);
+            deleteOlderThan(HOUR_TABLE, this.mongo ? "bucketStart" : "bucket_start", now - this.hourRetentionMillis);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Fehler beim Bereinigen der Status-Historie", e);
+        }
+    }
+
+    private void deleteOlderThan(String table, String column, long cutoff) {
+        if (this.mongo) {
+            this.processor.guardWrite(() -> this.mongoProcessor.deleteMany(table, Filters.lt(column, cutoff)));
+        } else {
+            this.processor.update("DELETE FROM " + table + " WHERE " + column + " < ?", cutoff);
+        }
+    }
+
+    public record StatusSample(String serverId, long sampledAt, int currentPlayers, int maxPlayers) {
+    }
+
+    private static final class RollupBucket {
+        private final String serverId;
+        private final long bucketStart;
+        private final long bucketMillis;
+        private int samples;
+        private long playerSum;
+        private int peakPlayers;
+        private int maxPlayers;
+
+        private RollupBucket(String serverId, long bucketStart, long bucketMillis) {
+            this.serverId = serverId;
+            this.bucketStart = bucketStart;
+            this.bucketMillis = bucketMillis;
+        }
+
+        private void add(StatusSample sample) {
+            this.samples++;
+            this.playerSum += sample.currentPlayers();
+            this.peakPlayers = Math.max(this.peakPlayers, sample.currentPlayers());
+            this.maxPlayers = Math.max(this.maxPlayers, sample.maxPlayers());
+        }
+    }
+}
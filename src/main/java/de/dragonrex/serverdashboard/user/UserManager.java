@@ -1,15 +1,36 @@
 package de.dragonrex.serverdashboard.user;
 
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import de.dragonrex.serverdashboard.config.AppConfig;
 import de.dragonrex.serverdashboard.database.DatabaseHandler;
 import de.dragonrex.serverdashboard.database.DatabaseResult;
+import de.dragonrex.serverdashboard.database.RowMapper;
+import de.dragonrex.serverdashboard.database.processor.AbstractSQLProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoProcessor;
+import de.dragonrex.serverdashboard.database.processor.MongoQuery;
+import de.dragonrex.serverdashboard.database.processor.SQLDialect;
 import lombok.Getter;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Getter
 public class UserManager {
+    private static final Logger LOGGER = Logger.getLogger(UserManager.class.getName());
+    private static final RowMapper<User> USER_MAPPER = row -> new User(row.getString("username"), row.getString("password"));
+    private static final RowMapper<Integer> COUNT_MAPPER = row -> row.getInt("count");
+    private static final Bson USER_PROJECTION = Projections.include("username", "password");
+    private static final String[] USER_COLUMNS = {"username", "password"};
+    private static final String[] USER_DETAIL_COLUMNS = {"username", "password", "email", "role"};
+
     private final DatabaseHandler databaseHandler;
     private final List<User> userList;
 
@@ -32,23 +53,10 @@ public class UserManager {
 
     private void loadUsersFromSQL() {
         this.userList.clear();
-        DatabaseResult result = null;
         try {
-            result = databaseHandler.processor().query("SELECT username, password FROM users");
-
-            while (result.next()) {
-                String username = result.getString("username");
-                String password = result.getString("password");
-                this.userList.add(new User(username, password));
-            }
-
+            this.userList.addAll(databaseHandler.processor().query("SELECT username, password FROM users", USER_MAPPER));
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Laden der Benutzer aus der SQL-Datenbank: " + e.getMessage());
-        } finally {
-            if (result != null) {
-                result.close();
-            }
+            LOGGER.log(Level.WARNING, "Fehler beim Laden der Benutzer aus der SQL-Datenbank", e);
         }
     }
 
@@ -60,182 +68,123 @@ public class UserManager {
         }
     }
 
+    // Runs on the processor's database executor, so request threads never block on the lookup.
+    public CompletableFuture<Boolean> authenticateUserAsync(String username, String password) {
+        CompletableFuture<Boolean> authenticated = isMongoDatabase()
+                ? databaseHandler.processor().getExecutor().submit(() -> !findMongoUser(username, password).isEmpty())
+                : databaseHandler.processor().queryAsync("SELECT COUNT(*) as count FROM users WHERE username = ? AND password = ?", COUNT_MAPPER, username, password)
+                        .thenApply(counts -> !counts.isEmpty() && counts.get(0) > 0);
+
+        return authenticated.exceptionally(e -> {
+            LOGGER.log(Level.WARNING, "Fehler bei der Benutzerauthentifizierung", e);
+            return false;
+        });
+    }
+
     private boolean authenticateUserSQL(String username, String password) {
-        DatabaseResult result = null;
         try {
-            result = databaseHandler.processor().query(
-                    "SELECT COUNT(*) as count FROM users WHERE username = ? AND password = ?",
-                    username, password
-            );
-
-            if (result.next()) {
-                int count = result.getInt("count");
-                return count > 0;
-            }
-            return false;
+            return countUsers("SELECT COUNT(*) as count FROM users WHERE username = ? AND password = ?", username, password) > 0;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler bei der SQL-Benutzerauthentifizierung: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler bei der SQL-Benutzerauthentifizierung", e);
             return false;
-        } finally {
-            if (result != null) {
-                result.close();
-            }
         }
     }
 
-    public boolean addUser(String username, String password) {
-        try {
-            DatabaseResult checkResult = databaseHandler.processor().query(
-                    "SELECT COUNT(*) as count FROM users WHERE username = ?", username
-            );
-
-            if (checkResult.next() && checkResult.getInt("count") > 0) {
-                checkResult.close();
-                return false;
-            }
-            checkResult.close();
+    private int countUsers(String query, Object... args) {
+        List<Integer> counts = databaseHandler.processor().query(query, COUNT_MAPPER, args);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
 
-            DatabaseResult result = databaseHandler.processor().update(
-                    "INSERT INTO users (username, password) VALUES (?, ?)",
-                    username, password
-            );
-            result.close();
+    // A single insert-if-absent; the unique username index decides, so concurrent adds cannot both succeed.
+    private boolean insertUserIfAbsent(String[] columns, Object... values) {
+        DatabaseResult result = databaseHandler.processor().update(sqlDialect().insertIfAbsent("users", "username", columns), values);
+        return result.next() && result.getInt("affectedRows") > 0;
+    }
 
-            loadUser();
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Hinzufügen des Benutzers: " + e.getMessage());
-            return false;
-        }
+    private boolean insertMongoUserIfAbsent(String username, String password, String email, String role) {
+        DatabaseResult result = databaseHandler.processor().guardWrite(() -> mongoProcessor().upsert("users", Filters.eq("username", username),
+                new Document("$setOnInsert", createMongoUserDocument(username, password, email, role, null))));
+        return result.next() && result.getObject("upsertedId") != null;
     }
 
-    private boolean addUserToMongo(String username, String password, String email, String role, List<String> permissions) {
-        DatabaseResult result = null;
+    private SQLDialect sqlDialect() {
+        return databaseHandler.processor().unwrap(AbstractSQLProcessor.class)
+                .map(AbstractSQLProcessor::getDialect)
+                .orElseThrow(() -> new IllegalStateException("Database is not SQL"));
+    }
 
+    public boolean addUser(String username, String password) {
         try {
-            result = databaseHandler.processor().query("users", "username:" + username);
+            boolean added = isMongoDatabase()
+                    ? insertMongoUserIfAbsent(username, password, null, "user")
+                    : insertUserIfAbsent(USER_COLUMNS, username, password);
 
-            boolean userExists = false;
-            if (result.next()) {
-                userExists = true;
+            if (added) {
+                loadUser();
             }
-            result.close();
-
-            if (userExists) {
-                System.out.println("MongoDB-Benutzer existiert bereits: " + username);
-                return false;
-            }
-
-            String userDocument = String.format("""
-                            {
-                                "username": "%s",
-                                "password": "%s",
-                                "email": "%s",
-                                "role": "%s",
-                                "permissions": %s,
-                                "created_at": "%s"
-                            }
-                            """,
-                    username,
-                    password,
-                    email,
-                    role,
-                    formatPermissionsForMongo(permissions),
-                    java.time.Instant.now().toString()
-            );
-
-            result = databaseHandler.processor().update("users", "INSERT", userDocument);
-            result.close();
-
-            System.out.println("MongoDB-Benutzer erfolgreich hinzugefügt: " + username + " (Rolle: " + role + ")");
-            return true;
-
+            return added;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Hinzufügen des MongoDB-Benutzers: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler beim Hinzufügen des Benutzers", e);
             return false;
-        } finally {
-            if (result != null) {
-                result.close();
-            }
         }
     }
 
-    private String formatPermissionsForMongo(List<String> permissions) {
-        if (permissions == null || permissions.isEmpty()) {
-            return "[]";
-        }
+    private Document createMongoUserDocument(String username, String password, String email, String role, List<String> permissions) {
+        return new Document("username", username)
+                .append("password", password)
+                .append("email", email)
+                .append("role", role)
+                .append("permissions", permissions != null ? permissions : List.of())
+                .append("created_at", Date.from(Instant.now()));
+    }
 
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < permissions.size(); i++) {
-            if (i > 0) sb.append(", ");
-            sb.append("\"").append(permissions.get(i)).append("\"");
-        }
-        sb.append("]");
-        return sb.toString();
+    private MongoProcessor mongoProcessor() {
+        return databaseHandler.processor().unwrap(MongoProcessor.class)
+                .orElseThrow(() -> new IllegalStateException("Database is not MongoDB"));
+    }
+
+    // Served by the unique username index; the limit stops the scan at the first match.
+    // Typed Mongo calls bypass the processor chain, so every one of them is guarded explicitly.
+    private List<User> findMongoUser(String username, String password) {
+        return databaseHandler.processor().guard(() -> mongoProcessor().find(
+                MongoQuery.of("users", Filters.and(Filters.eq("username", username), Filters.eq("password", password)))
+                        .withProjection(USER_PROJECTION)
+                        .withLimit(1), USER_MAPPER));
     }
 
     public void loadUsersFromMongo() {
         this.userList.clear();
-        DatabaseResult result = null;
 
         try {
-            result = databaseHandler.processor().query("users");
-
-            while (result.next()) {
-                String username = result.getString("username");
-                String password = result.getString("password");
-                this.userList.add(new User(username, password));
-            }
-
-            System.out.println("MongoDB-Benutzer geladen: " + userList.size() + " Benutzer gefunden");
-
+            this.userList.addAll(databaseHandler.processor().guard(() ->
+                    mongoProcessor().find(MongoQuery.of("users").withProjection(USER_PROJECTION), USER_MAPPER)));
+            LOGGER.info("MongoDB-Benutzer geladen: " + userList.size() + " Benutzer gefunden");
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Laden der Benutzer aus MongoDB: " + e.getMessage());
-        } finally {
-            if (result != null) {
-                result.close();
-            }
+            LOGGER.log(Level.WARNING, "Fehler beim Laden der Benutzer aus MongoDB", e);
         }
     }
 
     public boolean authenticateUserMongo(String username, String password) {
-        DatabaseResult result = null;
-
         try {
-            result = databaseHandler.processor().query("users", "username:" + username, "password:" + password);
-
-            boolean authenticated = result.next();
-            result.close();
-
-            return authenticated;
-
+            return !findMongoUser(username, password).isEmpty();
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler bei der MongoDB-Benutzerauthentifizierung: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler bei der MongoDB-Benutzerauthentifizierung", e);
             return false;
-        } finally {
-            if (result != null) {
-                result.close();
-            }
         }
     }
 
     public boolean removeUser(String username) {
         try {
-            DatabaseResult result = databaseHandler.processor().update(
-                    "DELETE FROM users WHERE username = ?", username
-            );
-            result.close();
+            if (isMongoDatabase()) {
+                databaseHandler.processor().guardWrite(() -> mongoProcessor().deleteOne("users", Filters.eq("username", username)));
+            } else {
+                databaseHandler.processor().update("DELETE FROM users WHERE username = ?", username);
+            }
 
             loadUser();
             return true;
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Löschen des Benutzers: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler beim Löschen des Benutzers", e);
             return false;
         }
     }
@@ -249,101 +198,63 @@ public class UserManager {
     }
 
     private boolean isMongoDatabase() {
-        return databaseHandler.processor() instanceof de.dragonrex.serverdashboard.database.processor.MongoProcessor;
+        return databaseHandler.processor().unwrap(MongoProcessor.class).isPresent();
     }
 
     private void initializeMongoUsersCollection() {
-        DatabaseResult countResult = null;
-
         try {
-            countResult = databaseHandler.processor().query("users");
-
-            int userCount = 0;
-            while (countResult.next()) {
-                userCount++;
-            }
+            long userCount = databaseHandler.processor().guard(() -> mongoProcessor().count("users", Filters.empty()));
 
             if (userCount == 0) {
                 loadUsersFromConfigForMongo();
-                System.out.println("Standard-Benutzer aus config.json wurden zur MongoDB users collection hinzugefügt.");
+                LOGGER.info("Standard-Benutzer aus config.json wurden zur MongoDB users collection hinzugefügt.");
             } else {
-                System.out.println("MongoDB users collection enthält bereits " + userCount + " Benutzer.");
+                LOGGER.info("MongoDB users collection enthält bereits " + userCount + " Benutzer.");
             }
 
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Initialisieren der MongoDB users collection: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler beim Initialisieren der MongoDB users collection", e);
             try {
                 loadUsersFromConfigForMongo();
             } catch (Exception fallbackError) {
-                System.err.println("Fallback fehlgeschlagen: " + fallbackError.getMessage());
-            }
-        } finally {
-            if (countResult != null) {
-                countResult.close();
+                LOGGER.log(Level.WARNING, "Fallback fehlgeschlagen", fallbackError);
             }
         }
     }
 
+    // The table itself is created by the V1 schema migration.
     private void initializeSQLUsersTable() {
-        DatabaseResult createResult = null;
-        DatabaseResult countResult = null;
-
-        try {
-            String createTableSQL = """
-                    CREATE TABLE IF NOT EXISTS users (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        username VARCHAR(50) UNIQUE NOT NULL,
-                        password VARCHAR(255) NOT NULL,
-                        email VARCHAR(100),
-                        role VARCHAR(20) DEFAULT 'user',
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                    )
-                    """;
-
-            createResult = databaseHandler.processor().update(createTableSQL);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Erstellen der Benutzer-Tabelle: " + e.getMessage());
-        } finally {
-            if (createResult != null) {
-                createResult.close();
-            }
-        }
-
         try {
-            countResult = databaseHandler.processor().query("SELECT COUNT(*) as count FROM users");
-            if (countResult.next() && countResult.getInt("count") == 0) {
+            if (countUsers("SELECT COUNT(*) as count FROM users") == 0) {
                 loadUsersFromConfig();
 
-                System.out.println("Standard-Benutzer aus config.json wurden zur Datenbank hinzugefügt.");
+                LOGGER.info("Standard-Benutzer aus config.json wurden zur Datenbank hinzugefügt.");
             }
 
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Prüfen/Hinzufügen der Standard-Benutzer: " + e.getMessage());
-        } finally {
-            if (countResult != null) {
-                countResult.close();
-            }
+            LOGGER.log(Level.WARNING, "Fehler beim Prüfen/Hinzufügen der Standard-Benutzer", e);
         }
     }
 
+    // Seeding only runs against an empty table, so all configured users go out in a single batch.
+    // Insert-if-absent keeps it safe when another instance seeds the same database concurrently.
     private void loadUsersFromConfig() {
         try {
-            AppConfig.AdminConfig admin = appConfig.getAdminConfig();
-            addUserWithDetails(admin.username(), admin.password(), admin.email(), admin.role());
-            System.out.println("Admin-Benutzer aus Konfiguration hinzugefügt: " + admin.username());
-
-            for (AppConfig.UserConfig user : appConfig.getDefaultUsers()) {
-                addUserWithDetails(user.username(), user.password(), user.email(), user.role());
-                System.out.println("Standard-Benutzer aus Konfiguration hinzugefügt: " + user.username());
+            List<Object[]> batchArgs = new ArrayList<>();
+            for (AppConfig.UserConfig user : getConfiguredUsers()) {
+                if (user.password().length() < appConfig.getPasswordMinLength()) {
+                    LOGGER.warning("Passwort zu kurz für " + user.username() + ". Mindestlänge: " + appConfig.getPasswordMinLength());
+                    continue;
+                }
+                batchArgs.add(new Object[]{user.username(), user.password(), user.email(), user.role()});
             }
 
+            databaseHandler.processor().batchUpdate(sqlDialect().insertIfAbsent("users", "username", USER_DETAIL_COLUMNS), batchArgs);
+            loadUser();
+            LOGGER.info(batchArgs.size() + " Benutzer aus Konfiguration hinzugefügt");
+
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Laden der Benutzer aus AppConfig: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler beim Laden der Benutzer aus AppConfig", e);
             addUser("admin", "admin");
             addUser("user", "user");
         }
@@ -351,67 +262,49 @@ public class UserManager {
 
     private void loadUsersFromConfigForMongo() {
         try {
-            AppConfig.AdminConfig admin = appConfig.getAdminConfig();
-            addUserToMongo(admin.username(), admin.password(), admin.email(), admin.role(), admin.permissions());
-            System.out.println("Admin-Benutzer zu MongoDB hinzugefügt: " + admin.username());
-
-            for (AppConfig.UserConfig user : appConfig.getDefaultUsers()) {
-                addUserToMongo(user.username(), user.password(), user.email(), user.role(), user.permissions());
-                System.out.println("Standard-Benutzer zu MongoDB hinzugefügt: " + user.username());
+            List<Object[]> batchArgs = new ArrayList<>();
+            for (AppConfig.UserConfig user : getConfiguredUsers()) {
+                batchArgs.add(new Object[]{"INSERT", createMongoUserDocument(user.username(), user.password(), user.email(), user.role(), user.permissions())});
             }
 
+            databaseHandler.processor().batchUpdate("users", batchArgs);
+            LOGGER.info(batchArgs.size() + " Benutzer zu MongoDB hinzugefügt");
+
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Laden der Benutzer in MongoDB: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler beim Laden der Benutzer in MongoDB", e);
         }
     }
 
+    private List<AppConfig.UserConfig> getConfiguredUsers() {
+        AppConfig.AdminConfig admin = appConfig.getAdminConfig();
+        List<AppConfig.UserConfig> users = new ArrayList<>();
+        users.add(new AppConfig.UserConfig(admin.username(), admin.password(), admin.email(), admin.role(), admin.permissions()));
+        users.addAll(appConfig.getDefaultUsers());
+        return users;
+    }
+
     public boolean addUserWithDetails(String username, String password, String email, String role) {
         if (password.length() < appConfig.getPasswordMinLength()) {
-            System.err.println("Passwort zu kurz. Mindestlänge: " + appConfig.getPasswordMinLength());
+            LOGGER.warning("Passwort zu kurz. Mindestlänge: " + appConfig.getPasswordMinLength());
             return false;
         }
 
-        DatabaseResult checkResult = null;
-        DatabaseResult insertResult = null;
-
         try {
-            checkResult = databaseHandler.processor().query(
-                    "SELECT COUNT(*) as count FROM users WHERE username = ?", username
-            );
-
-            if (checkResult.next() && checkResult.getInt("count") > 0) {
-                System.out.println("Benutzer existiert bereits: " + username);
-                return false;
-            }
+            boolean added = isMongoDatabase()
+                    ? insertMongoUserIfAbsent(username, password, email, role)
+                    : insertUserIfAbsent(USER_DETAIL_COLUMNS, username, password, email, role);
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        } finally {
-            if (checkResult != null) {
-                checkResult.close();
+            if (added) {
+                loadUser();
+                LOGGER.info("Benutzer erfolgreich hinzugefügt: " + username + " (Rolle: " + role + ")");
+            } else {
+                LOGGER.info("Benutzer existiert bereits: " + username);
             }
-        }
-
-        try {
-            insertResult = databaseHandler.processor().update(
-                    "INSERT INTO users (username, password, email, role) VALUES (?, ?, ?, ?)",
-                    username, password, email, role
-            );
-
-            loadUser();
-            System.out.println("Benutzer erfolgreich hinzugefügt: " + username + " (Rolle: " + role + ")");
-            return true;
+            return added;
 
         } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Fehler beim Hinzufügen des Benutzers mit Details: " + e.getMessage());
+            LOGGER.log(Level.WARNING, "Fehler beim Hinzufügen des Benutzers mit Details", e);
             return false;
-        } finally {
-            if (insertResult != null) {
-                insertResult.close();
-            }
         }
     }
 }
@@ -0,0 +1,31 @@
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so the retention indexes are declared inline.
+CREATE TABLE IF NOT EXISTS status_samples (
+    server_id VARCHAR(64) NOT NULL,
+    sampled_at BIGINT NOT NULL,
+    current_players INTEGER NOT NULL,
+    max_players INTEGER NOT NULL,
+    PRIMARY KEY (server_id, sampled_at),
+    INDEX idx_status_samples_sampled_at (sampled_at)
+);
+
+CREATE TABLE IF NOT EXISTS status_samples_minute (
+    server_id VARCHAR(64) NOT NULL,
+    bucket_start BIGINT NOT NULL,
+    samples INTEGER NOT NULL,
+    avg_players DOUBLE PRECISION NOT NULL,
+    peak_players INTEGER NOT NULL,
+    max_players INTEGER NOT NULL,
+    PRIMARY KEY (server_id, bucket_start),
+    INDEX idx_status_samples_minute_bucket_start (bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS status_samples_hour (
+    server_id VARCHAR(64) NOT NULL,
+    bucket_start BIGINT NOT NULL,
+    samples INTEGER NOT NULL,
+    avg_players DOUBLE PRECISION NOT NULL,
+    peak_players INTEGER NOT NULL,
+    max_players INTEGER NOT NULL,
+    PRIMARY KEY (server_id, bucket_start),
+    INDEX idx_status_samples_hour_bucket_start (bucket_start)
+);
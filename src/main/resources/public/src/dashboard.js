@@ -24,16 +24,80 @@ document.addEventListener('DOMContentLoaded', () => {
     fetchUsername().then(() => console.log("Username loaded!"));
 });
 
-const playerCountSpan = document.getElementById('player-count');
-const maxPlayersSpan = document.getElementById('max-players');
-const serverNameDisplay = document.getElementById('server-name-display');
+const serverList = document.getElementById('server-list');
+const serverListEmpty = document.getElementById('server-list-empty');
 const statusLight = document.getElementById('status-light');
 const serverStatusText = document.getElementById('server-status-text');
 
+const servers = new Map();
+const serverCards = new Map();
+
+let lastSeq = null;
+let awaitingSnapshot = true;
+
+function applyServer(server) {
+    const known = servers.get(server.serverId);
+    if (known && known.version >= server.version) {
+        return;
+    }
+    servers.set(server.serverId, server);
+    renderServer(server);
+}
+
+function renderServer(server) {
+    let card = serverCards.get(server.serverId);
+    if (!card) {
+        card = document.createElement('div');
+        card.className = 'bg-white dark:bg-gray-800 rounded-lg shadow-md p-4 flex items-center justify-between';
+        card.innerHTML = `
+            <div>
+                <h3 class="server-name text-lg font-bold text-gray-800 dark:text-white"></h3>
+                <p class="text-sm text-gray-600 dark:text-gray-400">ID: <span class="server-id"></span></p>
+            </div>
+            <div class="text-right">
+                <p class="text-xl font-bold text-gray-800 dark:text-white">
+                    <span class="player-count">0</span> / <span class="max-players">0</span>
+                </p>
+                <p class="text-sm text-gray-600 dark:text-gray-400">Players online</p>
+            </div>`;
+        serverList.appendChild(card);
+        serverCards.set(server.serverId, card);
+    }
+    serverListEmpty.classList.add('hidden');
+
+    card.querySelector('.server-name').textContent = `Servername: ${server.serverName ?? 'N/A'}`;
+    card.querySelector('.server-id').textContent = server.serverId;
+    card.querySelector('.player-count').textContent = server.currentPlayers;
+    card.querySelector('.max-players').textContent = server.maxPlayers;
+}
+
+function applyDelta(delta) {
+    const known = servers.get(delta.serverId) ?? {serverId: delta.serverId, version: 0};
+    if (known.version >= delta.version) {
+        return;
+    }
+    applyServer({...known, ...delta.changes, version: delta.version});
+}
+
+function requestResync(ws) {
+    awaitingSnapshot = true;
+    ws.send(JSON.stringify({type: 'resync'}));
+}
+
+function applySnapshot(snapshot) {
+    servers.clear();
+    serverCards.forEach(card => card.remove());
+    serverCards.clear();
+    serverListEmpty.classList.toggle('hidden', snapshot.servers.length > 0);
+    snapshot.servers.forEach(applyServer);
+}
+
 function setupWebSocket() {
     const ws = new WebSocket("ws://localhost:7070/ws/dashboard");
 
     ws.onopen = () => {
+        lastSeq = null;
+        awaitingSnapshot = true;
         console.log("WebSocket-Verbindung zum Dashboard hergestellt.");
         statusLight.classList.remove('bg-red-500');
         statusLight.classList.add('bg-green-500');
@@ -43,17 +107,42 @@ function setupWebSocket() {
     ws.onmessage = (event) => {
         const data = JSON.parse(event.data);
 
-        playerCountSpan.textContent = data.currentPlayers;
-        maxPlayersSpan.textContent = data.maxPlayers;
-        serverNameDisplay.textContent = `Servername: ${data.serverName}`;
+        if (data.type === 'snapshot') {
+            applySnapshot(data);
+            lastSeq = data.seq;
+            awaitingSnapshot = false;
+        } else if (data.type === 'delta') {
+            if (awaitingSnapshot || data.seq <= lastSeq) {
+                return;
+            }
+            if (data.seq !== lastSeq + 1) {
+                console.warn(`Status-Frames verpasst (erwartet ${lastSeq + 1}, erhalten ${data.seq}), fordere Snapshot an.`);
+                requestResync(ws);
+                return;
+            }
+            applyDelta(data);
+            lastSeq = data.seq;
+        }
     };
 
     ws.onclose = (event) => {
-        console.log("WebSocket-Verbindung geschlossen. Versuche erneut zu verbinden...");
+        if (event.code === 4401) {
+            window.location.href = '/';
+            return;
+        }
+
         statusLight.classList.remove('bg-green-500');
         statusLight.classList.add('bg-red-500');
         serverStatusText.textContent = "Offline";
 
+        if (event.code === 4008) {
+            // Server dropped us for falling behind; wait longer so a congested link can recover.
+            console.warn("Verbindung zu langsam, Server hat getrennt. Neuer Versuch in 15 Sekunden...");
+            setTimeout(setupWebSocket, 15000);
+            return;
+        }
+
+        console.log("WebSocket-Verbindung geschlossen. Versuche erneut zu verbinden...");
         setTimeout(setupWebSocket, 5000);
     };
 
@@ -0,0 +1,124 @@
+package de.dragonrex.serverdashboard.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Compares the shared-schema rows with the former HashMap per row. Not picked up by the default test run;
+// start it with: mvn test -Dtest=DatabaseResultAllocationBenchmark
+class DatabaseResultAllocationBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int ROUNDS = 3;
+    private static final String[] COLUMNS = {"id", "server_id", "current_players", "max_players", "server_name"};
+    // Column values come from a small pool, so only the row representation itself is measured.
+    private static final Object[][] VALUE_POOL = {
+            {1, "lobby", 12, 100, "Lobby"},
+            {2, "survival", 48, 120, "Survival"},
+            {3, "creative", 7, 50, "Creative"}
+    };
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void sharedSchemaAllocatesLessThanHashMapRows() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        Measurement hashMap = null;
+        Measurement shared = null;
+        // The first round only warms up the JIT.
+        for (int round = 0; round <= ROUNDS; round++) {
+            Measurement hashMapRound = measure(DatabaseResultAllocationBenchmark::hashMapRows);
+            Measurement sharedRound = measure(DatabaseResultAllocationBenchmark::sharedSchemaRows);
+            if (round > 0) {
+                hashMap = hashMap == null || hashMapRound.bytes() < hashMap.bytes() ? hashMapRound : hashMap;
+                shared = shared == null || sharedRound.bytes() < shared.bytes() ? sharedRound : shared;
+            }
+        }
+
+        System.out.printf("HashMap per row: %d B/row, %d ms%n", hashMap.bytes() / ROWS, hashMap.millis());
+        System.out.printf("Shared schema:   %d B/row, %d ms%n", shared.bytes() / ROWS, shared.millis());
+        assertTrue(shared.bytes() * 2 < hashMap.bytes(),
+                "shared schema should allocate less than half of HashMap rows: " + shared.bytes() + " vs " + hashMap.bytes());
+    }
+
+    // Previous format: one HashMap per row, read back by column name.
+    private static long hashMapRows() {
+        List<Map<String, Object>> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Object[] source = VALUE_POOL[i % VALUE_POOL.length];
+            Map<String, Object> row = new HashMap<>();
+            for (int column = 0; column < COLUMNS.length; column++) {
+                row.put(COLUMNS[column], source[column]);
+            }
+            rows.add(row);
+        }
+
+        long checksum = 0;
+        for (Map<String, Object> row : rows) {
+            checksum += (Integer) row.get("current_players") + row.get("server_name").toString().length();
+        }
+        return checksum;
+    }
+
+    // Current format: the schema is built once, rows hold only their values and are read by index.
+    private static long sharedSchemaRows() {
+        DatabaseResult.Schema schema = DatabaseResult.Schema.of(COLUMNS);
+        List<DatabaseResult.Row> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Object[] source = VALUE_POOL[i % VALUE_POOL.length];
+            Object[] values = new Object[COLUMNS.length];
+            System.arraycopy(source, 0, values, 0, COLUMNS.length);
+            rows.add(new DatabaseResult.Row(schema, values));
+        }
+
+        DatabaseResult result = new DatabaseResult(rows);
+        long checksum = 0;
+        int players = -1;
+        int name = -1;
+        while (result.next()) {
+            if (players < 0) {
+                players = result.columnIndex("current_players");
+                name = result.columnIndex("server_name");
+            }
+            checksum += result.getInt(players) + result.getString(name).length();
+        }
+        return checksum;
+    }
+
+    private static Measurement measure(Workload workload) {
+        long threadId = Thread.currentThread().threadId();
+        long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        long checksum = workload.run();
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+        assertEquals(expectedChecksum(), checksum);
+        return new Measurement(bytes, millis);
+    }
+
+    private static long expectedChecksum() {
+        long checksum = 0;
+        for (int i = 0; i < ROWS; i++) {
+            Object[] source = VALUE_POOL[i % VALUE_POOL.length];
+            checksum += (Integer) source[2] + source[4].toString().length();
+        }
+        return checksum;
+    }
+
+    private interface Workload {
+        long run();
+    }
+
+    private record Measurement(long bytes, long millis) {
+    }
+}
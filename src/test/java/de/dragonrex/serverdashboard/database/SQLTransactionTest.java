@@ -0,0 +1,69 @@
+package de.dragonrex.serverdashboard.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SQLTransactionTest {
+    private Connection connection;
+
+    @BeforeEach
+    void openDatabase() throws SQLException {
+        this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("CREATE TABLE servers (id INTEGER PRIMARY KEY, name TEXT)");
+        }
+    }
+
+    @AfterEach
+    void closeDatabase() throws SQLException {
+        this.connection.close();
+    }
+
+    @Test
+    void repeatedQueryReusesCachedStatement() {
+        try (SQLTransaction transaction = new SQLTransaction(this.connection, 2)) {
+            for (int i = 1; i <= 10; i++) {
+                transaction.update("INSERT INTO servers (id, name) VALUES (?, ?)", i, "server-" + i);
+            }
+
+            assertEquals(1, transaction.getCachedStatementCount());
+            assertEquals(0, transaction.getEvictedStatementCount());
+        }
+    }
+
+    // Dynamically built IN-lists produce a new SQL string per size; the cache must not grow with them.
+    @Test
+    void dynamicQueriesAreEvictedBeyondTheLimit() {
+        try (SQLTransaction transaction = new SQLTransaction(this.connection, 2)) {
+            transaction.update("INSERT INTO servers (id, name) VALUES (1, 'lobby'), (2, 'survival'), (3, 'creative')");
+
+            RowMapper<String> names = row -> row.getString("name");
+            for (int size = 1; size <= 3; size++) {
+                String placeholders = String.join(", ", Collections.nCopies(size, "?"));
+                Object[] ids = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    ids[i] = i + 1;
+                }
+                List<String> result = transaction.query("SELECT name FROM servers WHERE id IN (" + placeholders + ") ORDER BY id", names, ids);
+                assertEquals(size, result.size());
+            }
+
+            assertEquals(3, transaction.getCachedStatementCount());
+            assertEquals(1, transaction.getEvictedStatementCount());
+
+            // An evicted query is simply prepared again.
+            assertEquals(List.of("lobby"), transaction.query("SELECT name FROM servers WHERE id IN (?) ORDER BY id", names, 1));
+            assertEquals(2, transaction.getEvictedStatementCount());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package de.dragonrex.serverdashboard.database.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        assertEquals(0.0, histogram.getMean());
+    }
+
+    @Test
+    void valuesBelowSubBucketCountAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 32; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(15, histogram.getValueAtPercentile(50));
+        assertEquals(31, histogram.getValueAtPercentile(100));
+        assertEquals(15.5, histogram.getMean());
+    }
+
+    // The reported value is the upper bound of its bucket: never below the exact percentile and at most
+    // one sub-bucket width (1/32) above it.
+    @Test
+    void percentilesStayWithinBucketResolution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int samples = 100_000;
+        for (int value = 1; value <= samples; value++) {
+            histogram.record(value);
+        }
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(samples * percentile / 100.0);
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact, "p" + percentile + " below exact value: " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 32, "p" + percentile + " too far above exact value: " + reported + " vs " + exact);
+        }
+        assertEquals(samples, histogram.getValueAtPercentile(100));
+        assertEquals(samples, histogram.getMax());
+    }
+
+    @Test
+    void negativeAndHugeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals((1L << 41) - 1, histogram.getMax());
+    }
+
+    @Test
+    void concurrentRecordingLosesNoSamples() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 10_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    histogram.record(i);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals((long) threads * perThread, histogram.getCount());
+        assertEquals(perThread, histogram.getMax());
+        assertEquals((perThread + 1) / 2.0, histogram.getMean(), 1e-9);
+    }
+}
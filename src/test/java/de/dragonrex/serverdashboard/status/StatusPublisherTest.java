@@ -0,0 +1,132 @@
+package de.dragonrex.serverdashboard.status;
+
+import de.dragonrex.serverdashboard.models.ServerStatus;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatusPublisherTest {
+    private final ServerStatusRegistry registry = new ServerStatusRegistry();
+    private final FrameEncoder encoder = new FrameEncoder();
+    private final RecordingHub hub = new RecordingHub();
+    private final StatusPublisher publisher = new StatusPublisher(this.hub, this.encoder, new SnapshotCache(this.registry, this.encoder));
+
+    @AfterEach
+    void shutdownHub() {
+        this.hub.shutdown();
+    }
+
+    @Test
+    void deltaCarriesOnlyChangedFields() {
+        this.publisher.publish(this.registry.update("lobby", status("lobby", "Lobby", 1, 20)));
+        this.publisher.publish(this.registry.update("lobby", status("lobby", "Lobby", 2, 20)));
+
+        JSONObject delta = new JSONObject(this.hub.deltas.get(1).text());
+        assertEquals("delta", delta.getString("type"));
+        assertEquals(2, delta.getLong("seq"));
+        assertEquals("lobby", delta.getString("serverId"));
+        assertEquals(2, delta.getLong("version"));
+        assertEquals(Collections.singleton("currentPlayers"), delta.getJSONObject("changes").keySet());
+        assertEquals(2, delta.getJSONObject("changes").getInt("currentPlayers"));
+    }
+
+    @Test
+    void unchangedStatusDoesNotAdvanceSequence() {
+        this.publisher.publish(this.registry.update("lobby", status("lobby", "Lobby", 1, 20)));
+        this.publisher.publish(this.registry.update("lobby", status("lobby", "Lobby", 1, 20)));
+
+        assertEquals(1, this.hub.deltas.size());
+        assertEquals(1, this.publisher.getSequence());
+    }
+
+    // Every session must see gap-free sequence numbers in delivery order, even when several
+    // servers report at the same time.
+    @Test
+    void concurrentPublishesBroadcastSequenceInOrder() throws InterruptedException {
+        int servers = 8;
+        int updatesPerServer = 200;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < servers; s++) {
+            String serverId = "server-" + s;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int players = 1; players <= updatesPerServer; players++) {
+                    this.publisher.publish(this.registry.update(serverId, status(serverId, serverId, players, 500)));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int expected = servers * updatesPerServer;
+        assertEquals(expected, this.hub.deltas.size());
+        for (int i = 0; i < expected; i++) {
+            assertEquals(i + 1, new JSONObject(this.hub.deltas.get(i).text()).getLong("seq"));
+        }
+        assertEquals(expected, this.publisher.getSequence());
+    }
+
+    @Test
+    void resyncSnapshotCarriesCurrentSequence() {
+        this.publisher.publish(this.registry.update("lobby", status("lobby", "Lobby", 1, 20)));
+        this.publisher.publish(this.registry.update("survival", status("survival", "Survival", 5, 50)));
+
+        JSONObject snapshot = new JSONObject(this.hub.lastSnapshot.get().text());
+        assertEquals("snapshot", snapshot.getString("type"));
+        assertEquals(2, snapshot.getLong("seq"));
+        assertEquals(this.registry.getVersion(), snapshot.getLong("version"));
+        assertEquals(2, snapshot.getJSONArray("servers").length());
+        assertTrue(this.hub.snapshotsMatchedDeltas);
+    }
+
+    private static ServerStatus status(String serverId, String serverName, int currentPlayers, int maxPlayers) {
+        ServerStatus status = new ServerStatus();
+        status.setServerId(serverId);
+        status.setServerName(serverName);
+        status.setCurrentPlayers(currentPlayers);
+        status.setMaxPlayers(maxPlayers);
+        return status;
+    }
+
+    // Records frames instead of fanning them out to sessions. Broadcasts are already serialised by the
+    // publisher, so the plain list keeps delivery order.
+    private static final class RecordingHub extends DashboardHub {
+        private final List<EncodedFrame> deltas = new ArrayList<>();
+        private Supplier<EncodedFrame> lastSnapshot;
+        private boolean snapshotsMatchedDeltas = true;
+
+        private RecordingHub() {
+            super(16, 1 << 20, BackpressurePolicy.SNAPSHOT_ONLY, 1);
+        }
+
+        @Override
+        public void broadcast(EncodedFrame frame, Supplier<EncodedFrame> snapshot) {
+            this.deltas.add(frame);
+            this.lastSnapshot = snapshot;
+            long deltaSeq = new JSONObject(frame.text()).getLong("seq");
+            if (new JSONObject(snapshot.get().text()).getLong("seq") != deltaSeq) {
+                this.snapshotsMatchedDeltas = false;
+            }
+        }
+    }
+}